@@ -0,0 +1,32 @@
+package com.example.inventix.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seeds the catalog the benchmarks run against. Every run gets the same rows: ids 1..n,
+ * SKU {@code BENCH-0000001} onwards, a price derived from the id and stock high enough that
+ * no reservation is ever refused.
+ */
+final class DataSeeder {
+
+    static final long SEED = 20240101L;
+    static final int STOCK = 1_000_000_000;
+
+    private DataSeeder() {
+    }
+
+    static void seedProducts(JdbcTemplate jdbcTemplate, int products) {
+        jdbcTemplate.update("INSERT INTO products (id, name, sku, description, price, quantity, created_at, updated_at) " +
+                "SELECT X, CONCAT('Product ', X), CONCAT('BENCH-', LPAD(CAST(X AS VARCHAR), 7, '0')), 'Seeded for benchmarks', " +
+                "1 + MOD(X * 7919, 10000) / 100.0, ?, TIMESTAMP '2024-01-01 00:00:00', TIMESTAMP '2024-01-01 00:00:00' " +
+                "FROM SYSTEM_RANGE(1, ?)", STOCK, products);
+        // The pooled optimizer hands out (value - 49)..value, so ids resume right after the seeded range
+        jdbcTemplate.execute("ALTER SEQUENCE products_seq RESTART WITH " + (products + 50));
+    }
+
+    static SplittableRandom random() {
+        return new SplittableRandom(SEED);
+    }
+}
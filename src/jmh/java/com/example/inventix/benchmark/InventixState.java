@@ -0,0 +1,86 @@
+package com.example.inventix.benchmark;
+
+import com.example.inventix.InventixApplication;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.Product;
+import com.example.inventix.service.OrderItemService;
+import com.example.inventix.service.OrderService;
+import com.example.inventix.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The application context shared by every benchmark in a fork: the real services over an
+ * in-memory H2 database seeded by {@link DataSeeder}.
+ */
+@State(Scope.Benchmark)
+public class InventixState {
+
+    @Param("10000")
+    public int products;
+
+    ConfigurableApplicationContext context;
+    ProductService productService;
+    OrderService orderService;
+    OrderItemService orderItemService;
+    ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(InventixApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties("logging.level.root=warn")
+                .run();
+        DataSeeder.seedProducts(context.getBean(JdbcTemplate.class), products);
+        productService = context.getBean(ProductService.class);
+        orderService = context.getBean(OrderService.class);
+        orderItemService = context.getBean(OrderItemService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    Long randomProductId(SplittableRandom random) {
+        return random.nextLong(1, products + 1L);
+    }
+
+    /**
+     * Builds unsaved line items the way a client sends them: a product reference and a quantity.
+     */
+    List<OrderItem> newItems(SplittableRandom random, int lines) {
+        List<OrderItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            Product reference = new Product();
+            reference.setId(randomProductId(random));
+            OrderItem item = new OrderItem();
+            item.setProduct(reference);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        return items;
+    }
+
+    static Order newOrder() {
+        Order order = new Order();
+        order.setOrderItems(new ArrayList<>());
+        return order;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.inventix.benchmark;
+
+import com.example.inventix.model.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderItemServiceBenchmark {
+
+    // createOrderItem loads the order's item list, so a fresh order is started periodically
+    // to keep that list from growing for the whole run
+    private static final int LINES_PER_ORDER = 20;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        final SplittableRandom random = DataSeeder.random();
+        Long orderId;
+        int lines;
+    }
+
+    @Benchmark
+    public OrderItem createOrderItem(InventixState state, Cursor cursor) {
+        if (cursor.lines++ % LINES_PER_ORDER == 0) {
+            cursor.orderId = state.orderService.createOrder(InventixState.newOrder()).getId();
+        }
+        return state.orderItemService.createOrderItem(cursor.orderId, state.newItems(cursor.random, 1).get(0));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.inventix.benchmark;
+
+import com.example.inventix.dto.OrderView;
+import com.example.inventix.model.Order;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes an order graph with the application's {@code ObjectMapper}, the last step of
+ * every order read. The graph is loaded once from the seeded database so only Jackson is timed.
+ * {@code writeOrder} writes the entity graph, {@code writeOrderView} the projection the API now
+ * returns; add {@code -prof gc} to {@code -Pjmh.args} to compare allocation per operation too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderSerializationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Graph {
+        @Param({"1", "10", "100", "500"})
+        public int lines;
+
+        Order order;
+        OrderView view;
+
+        @Setup(Level.Trial)
+        public void load(InventixState state) {
+            Order created = state.orderService.createBulkOrder(InventixState.newOrder(),
+                    state.newItems(DataSeeder.random(), lines));
+            order = state.orderService.getOrderById(created.getId());
+            view = state.orderService.getOrderView(created.getId());
+            try {
+                System.out.printf("%n%d lines: entity %d bytes, view %d bytes%n", lines,
+                        state.objectMapper.writeValueAsBytes(order).length,
+                        state.objectMapper.writeValueAsBytes(view).length);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Benchmark
+    public byte[] writeOrder(InventixState state, Graph graph) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(graph.order);
+    }
+
+    @Benchmark
+    public byte[] writeOrderView(InventixState state, Graph graph) throws JsonProcessingException {
+        return state.objectMapper.writeValueAsBytes(graph.view);
+    }
+}
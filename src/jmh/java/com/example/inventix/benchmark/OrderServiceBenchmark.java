@@ -0,0 +1,31 @@
+package com.example.inventix.benchmark;
+
+import com.example.inventix.model.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderServiceBenchmark {
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        @Param({"1", "10", "100"})
+        public int lines;
+
+        final SplittableRandom random = DataSeeder.random();
+    }
+
+    @Benchmark
+    public Order createOrderWithItems(InventixState state, Cursor cursor) {
+        return state.orderService.createOrderWithItems(InventixState.newOrder(), state.newItems(cursor.random, cursor.lines));
+    }
+}
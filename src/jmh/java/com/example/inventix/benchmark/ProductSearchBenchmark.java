@@ -0,0 +1,89 @@
+package com.example.inventix.benchmark;
+
+import com.example.inventix.search.ProductSearchDocument;
+import com.example.inventix.search.ProductSearchHit;
+import com.example.inventix.search.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries a {@link ProductSearchIndex} holding a synthetic catalog, without Spring or a
+ * database: names and descriptions are drawn from a 5,000-word vocabulary, so common words
+ * match thousands of products and rare pairs only a few.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductSearchBenchmark {
+
+    private static final int VOCABULARY = 5_000;
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        @Param("1000000")
+        public int products;
+
+        ProductSearchIndex index;
+
+        @Setup(Level.Trial)
+        public void build() {
+            index = new ProductSearchIndex(64, 1_000);
+            SplittableRandom random = DataSeeder.random();
+            List<ProductSearchDocument> batch = new ArrayList<>(10_000);
+            for (long id = 1; id <= products; id++) {
+                batch.add(new ProductSearchDocument(id, words(random, 3), String.format("SKU-%07d", id), words(random, 8)));
+                if (batch.size() == 10_000) {
+                    index.load(batch);
+                    batch.clear();
+                }
+            }
+            index.load(batch);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        final SplittableRandom random = DataSeeder.random();
+    }
+
+    @Benchmark
+    public List<ProductSearchHit> twoWords(Catalog catalog, Cursor cursor) {
+        return catalog.index.search(word(cursor.random) + " " + word(cursor.random), 20);
+    }
+
+    @Benchmark
+    public List<ProductSearchHit> wordAndPrefix(Catalog catalog, Cursor cursor) {
+        String prefix = word(cursor.random);
+        return catalog.index.search(word(cursor.random) + " " + prefix.substring(0, 3), 20);
+    }
+
+    @Benchmark
+    public List<ProductSearchHit> skuPrefix(Catalog catalog, Cursor cursor) {
+        return catalog.index.search(String.format("SKU-%05d", cursor.random.nextInt(catalog.products / 100)), 20);
+    }
+
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(i == 0 ? "" : " ").append(word(random));
+        }
+        return text.toString();
+    }
+
+    // Skewed towards the low word numbers, as real catalog vocabulary is
+    private static String word(SplittableRandom random) {
+        int n = (int) Math.pow(VOCABULARY, random.nextDouble());
+        return "w" + Integer.toString(n * 7_919 + 1_000, 36);
+    }
+}
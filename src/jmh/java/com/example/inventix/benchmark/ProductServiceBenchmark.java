@@ -0,0 +1,27 @@
+package com.example.inventix.benchmark;
+
+import com.example.inventix.model.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductServiceBenchmark {
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        final SplittableRandom random = DataSeeder.random();
+    }
+
+    @Benchmark
+    public Product getProductById(InventixState state, Cursor cursor) {
+        return state.productService.getProductById(state.randomProductId(cursor.random));
+    }
+}
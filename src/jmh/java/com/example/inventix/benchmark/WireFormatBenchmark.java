@@ -0,0 +1,119 @@
+package com.example.inventix.benchmark;
+
+import com.example.inventix.dto.ProductView;
+import com.example.inventix.dto.ViewSerializers;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes and decodes 100k products in each wire format the API offers, with and without gzip,
+ * without Spring or a database. The mappers are built like the application's, with the view
+ * serializers. Setup prints the payload size of each combination; the end-to-end latency of
+ * the same payloads over HTTP is measured by {@code WireFormatLoadTest}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<List<ProductView>> PRODUCTS = new TypeReference<>() {
+    };
+
+    @State(Scope.Benchmark)
+    public static class Payload {
+        @Param("100000")
+        public int products;
+
+        @Param({"json", "cbor", "smile"})
+        public String format;
+
+        @Param({"identity", "gzip"})
+        public String encoding;
+
+        ObjectMapper mapper;
+        List<ProductView> views;
+        byte[] encoded;
+
+        @Setup(Level.Trial)
+        public void build() throws IOException {
+            mapper = mapper(switch (format) {
+                case "cbor" -> new CBORFactory();
+                case "smile" -> new SmileFactory();
+                default -> new JsonFactory();
+            });
+            views = products(products);
+            encoded = write(this);
+            System.out.printf("%n%s/%s: %,d bytes for %,d products%n", format, encoding, encoded.length, products);
+        }
+    }
+
+    @Benchmark
+    public byte[] encode(Payload payload) throws IOException {
+        return write(payload);
+    }
+
+    @Benchmark
+    public List<ProductView> decode(Payload payload) throws IOException {
+        InputStream in = new ByteArrayInputStream(payload.encoded);
+        if (payload.encoding.equals("gzip")) {
+            in = new GZIPInputStream(in, 64 * 1024);
+        }
+        return payload.mapper.readValue(in, PRODUCTS);
+    }
+
+    private static byte[] write(Payload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+        // Level 6, as Tomcat compresses with the JDK's default deflater
+        try (OutputStream out = payload.encoding.equals("gzip") ? new GZIPOutputStream(bytes, 64 * 1024) : bytes) {
+            payload.mapper.writeValue(out, payload.views);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return new Jackson2ObjectMapperBuilder()
+                .factory(factory)
+                .serializerByType(ProductView.class, new ViewSerializers.ProductViewSerializer())
+                .build();
+    }
+
+    // Catalog-like text: repeated vocabulary in names and descriptions, sequential SKUs
+    private static List<ProductView> products(int count) {
+        SplittableRandom random = DataSeeder.random();
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 10, 0);
+        List<ProductView> views = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            views.add(new ProductView(id, "Product " + random.nextInt(5_000), String.format("SKU-%07d", id),
+                    "Description of product " + random.nextInt(5_000) + " in category " + random.nextInt(50),
+                    BigDecimal.valueOf(random.nextInt(100, 100_000), 2), random.nextInt(1_000),
+                    updatedAt.plusSeconds(id), id));
+        }
+        return views;
+    }
+}
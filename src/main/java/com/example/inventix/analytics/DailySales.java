@@ -0,0 +1,11 @@
+package com.example.inventix.analytics;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Units sold and revenue for one product on one day, as aggregated straight from order items
+ * when the daily table is rebuilt.
+ */
+public record DailySales(Long productId, LocalDate saleDate, Long unitsSold, BigDecimal revenue) {
+}
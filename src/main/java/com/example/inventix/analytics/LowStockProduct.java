@@ -0,0 +1,8 @@
+package com.example.inventix.analytics;
+
+/**
+ * A product at or below the low-stock threshold. {@code quantity} includes any stock split
+ * across buckets.
+ */
+public record LowStockProduct(Long id, String sku, String name, Long quantity) {
+}
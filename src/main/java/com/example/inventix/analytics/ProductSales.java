@@ -0,0 +1,9 @@
+package com.example.inventix.analytics;
+
+import java.math.BigDecimal;
+
+/**
+ * Units sold and revenue for one product, summed over a date range.
+ */
+public record ProductSales(Long productId, Long unitsSold, BigDecimal revenue) {
+}
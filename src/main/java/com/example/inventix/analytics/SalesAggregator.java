@@ -0,0 +1,171 @@
+package com.example.inventix.analytics;
+
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.ProductDailySales;
+import com.example.inventix.repository.ProductDailySalesRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps {@link ProductDailySales} current as order items are created, changed and deleted.
+ * <p>
+ * Sales are recorded against the day the order was placed. A change is buffered only once
+ * its transaction commits, so rolled-back checkouts never count, and a scheduled flush adds
+ * the buffered deltas to the daily rows. The flush is the only writer of those rows, so the
+ * first sale of a product on a day can insert its row without racing another transaction.
+ * Readers see figures at most one flush interval old. Deltas still buffered when the process
+ * dies are lost; {@link #rebuild()} recomputes every row from the order items.
+ */
+@Component
+public class SalesAggregator {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesAggregator.class);
+
+    private final ProductDailySalesRepository dailySalesRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<ProductDailySales.Key, Delta> pending = new ConcurrentHashMap<>();
+    // Recorders share the read lock; a flush takes the write lock only to take the pending deltas
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public SalesAggregator(ProductDailySalesRepository dailySalesRepository,
+                           TransactionTemplate transactionTemplate,
+                           MeterRegistry meterRegistry) {
+        this.dailySalesRepository = dailySalesRepository;
+        this.transactionTemplate = transactionTemplate;
+        Gauge.builder("inventix.analytics.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Records a change in units sold and revenue for a product, against the day of
+     * {@code orderedAt} (today for an order not yet persisted). Negative values take sales
+     * back out, e.g. for a deleted item.
+     */
+    public void record(Long productId, LocalDateTime orderedAt, long units, BigDecimal revenue) {
+        if (units == 0 && revenue.signum() == 0) {
+            return;
+        }
+        LocalDate saleDate = orderedAt != null ? orderedAt.toLocalDate() : LocalDate.now();
+        ProductDailySales.Key key = new ProductDailySales.Key(productId, saleDate);
+        Delta delta = new Delta(units, revenue);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    buffer(key, delta);
+                }
+            });
+        } else {
+            buffer(key, delta);
+        }
+    }
+
+    /**
+     * Records a whole item: {@code sign} 1 for an item added to the order, -1 for one removed.
+     */
+    public void recordItem(OrderItem item, LocalDateTime orderedAt, int sign) {
+        BigDecimal subtotal = item.getSubtotal() != null ? item.getSubtotal() : BigDecimal.ZERO;
+        record(item.getProduct().getId(), orderedAt, (long) sign * item.getQuantity(),
+                sign < 0 ? subtotal.negate() : subtotal);
+    }
+
+    /**
+     * Adds every buffered delta to its daily row in one transaction.
+     */
+    @Scheduled(fixedDelayString = "${inventix.analytics.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<ProductDailySales.Key, Delta> deltas;
+        flushLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            deltas = new HashMap<>(pending);
+            pending.clear();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> deltas.forEach(this::apply));
+        } catch (RuntimeException e) {
+            // Hand the deltas back for the next flush
+            deltas.forEach(this::buffer);
+            throw e;
+        }
+    }
+
+    /**
+     * Replaces every daily row with figures recomputed from live and archived order items, and
+     * returns the number of rows written. Meant for recovery after a crash lost buffered deltas.
+     */
+    public synchronized int rebuild() {
+        flush();
+        Map<ProductDailySales.Key, ProductDailySales> rows = new HashMap<>();
+        Integer written = transactionTemplate.execute(status -> {
+            merge(rows, dailySalesRepository.aggregateOrderItems());
+            merge(rows, dailySalesRepository.aggregateArchivedOrderItems());
+            dailySalesRepository.deleteAllInBatch();
+            dailySalesRepository.saveAll(rows.values());
+            return rows.size();
+        });
+        log.info("Rebuilt {} daily sales rows from order items", written);
+        return written;
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private void buffer(ProductDailySales.Key key, Delta delta) {
+        flushLock.readLock().lock();
+        try {
+            pending.merge(key, delta, Delta::plus);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private void apply(ProductDailySales.Key key, Delta delta) {
+        if (dailySalesRepository.addSales(key.getProductId(), key.getSaleDate(), delta.units(), delta.revenue()) == 0) {
+            dailySalesRepository.save(new ProductDailySales(key.getProductId(), key.getSaleDate(), delta.units(), delta.revenue()));
+        }
+    }
+
+    private static void merge(Map<ProductDailySales.Key, ProductDailySales> rows, List<DailySales> sales) {
+        for (DailySales day : sales) {
+            rows.merge(new ProductDailySales.Key(day.productId(), day.saleDate()),
+                    new ProductDailySales(day.productId(), day.saleDate(), day.unitsSold(), day.revenue()),
+                    (row, more) -> {
+                        row.setUnitsSold(row.getUnitsSold() + more.getUnitsSold());
+                        row.setRevenue(row.getRevenue().add(more.getRevenue()));
+                        return row;
+                    });
+        }
+    }
+
+    private record Delta(long units, BigDecimal revenue) {
+        Delta plus(Delta other) {
+            return new Delta(units + other.units, revenue.add(other.revenue));
+        }
+    }
+}
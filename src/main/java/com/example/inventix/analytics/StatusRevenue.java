@@ -0,0 +1,11 @@
+package com.example.inventix.analytics;
+
+import com.example.inventix.model.OrderStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Order count and revenue for one order status.
+ */
+public record StatusRevenue(OrderStatus status, Long orders, BigDecimal revenue) {
+}
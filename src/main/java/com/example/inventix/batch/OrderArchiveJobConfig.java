@@ -0,0 +1,106 @@
+package com.example.inventix.batch;
+
+import com.example.inventix.model.OrderStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SingleColumnRowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Archives DELIVERED and CANCELLED orders created before a cutoff. The id range is split into
+ * one partition per thread; each worker pages through its slice and moves orders with their
+ * items to {@code orders_archive} / {@code order_item_archive} in chunked transactions.
+ */
+@Configuration
+public class OrderArchiveJobConfig {
+
+    public static final String JOB_NAME = "orderArchiveJob";
+    public static final String CUTOFF_PARAMETER = "cutoff";
+    public static final String THREADS_PARAMETER = "threads";
+
+    // OrderStatus is persisted by ordinal
+    static final int DELIVERED = OrderStatus.DELIVERED.ordinal();
+    static final int CANCELLED = OrderStatus.CANCELLED.ordinal();
+
+    @Bean
+    public Job orderArchiveJob(JobRepository jobRepository, Step orderArchiveManagerStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(orderArchiveManagerStep)
+                .build();
+    }
+
+    @Bean
+    public Step orderArchiveManagerStep(JobRepository jobRepository,
+                                        Step orderArchiveWorkerStep,
+                                        OrderArchivePartitioner orderArchivePartitioner,
+                                        @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        // One thread per partition; partitions spend most of their time waiting on the database
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("order-archive-");
+        executor.setVirtualThreads(virtualThreads);
+        return new StepBuilder("orderArchiveManagerStep", jobRepository)
+                .partitioner(orderArchiveWorkerStep.getName(), orderArchivePartitioner)
+                .step(orderArchiveWorkerStep)
+                .taskExecutor(executor)
+                .build();
+    }
+
+    @Bean
+    public Step orderArchiveWorkerStep(JobRepository jobRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       JdbcPagingItemReader<Long> archivableOrderReader,
+                                       OrderArchiveWriter orderArchiveWriter,
+                                       @Value("${inventix.archive.chunk-size:500}") int chunkSize) {
+        return new StepBuilder("orderArchiveWorkerStep", jobRepository)
+                .<Long, Long>chunk(chunkSize, transactionManager)
+                .reader(archivableOrderReader)
+                .writer(orderArchiveWriter)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public OrderArchivePartitioner orderArchivePartitioner(
+            JdbcTemplate jdbcTemplate,
+            @Value("#{jobParameters['" + CUTOFF_PARAMETER + "']}") LocalDateTime cutoff,
+            @Value("#{jobParameters['" + THREADS_PARAMETER + "']}") Long threads) {
+        return new OrderArchivePartitioner(jdbcTemplate, cutoff, threads.intValue());
+    }
+
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<Long> archivableOrderReader(
+            DataSource dataSource,
+            @Value("#{stepExecutionContext['" + OrderArchivePartitioner.MIN_ID + "']}") Long minId,
+            @Value("#{stepExecutionContext['" + OrderArchivePartitioner.MAX_ID + "']}") Long maxId,
+            @Value("#{jobParameters['" + CUTOFF_PARAMETER + "']}") LocalDateTime cutoff,
+            @Value("${inventix.archive.chunk-size:500}") int pageSize) throws Exception {
+        return new JdbcPagingItemReaderBuilder<Long>()
+                .name("archivableOrderReader")
+                .dataSource(dataSource)
+                .selectClause("SELECT id")
+                .fromClause("FROM orders")
+                .whereClause("WHERE id BETWEEN :minId AND :maxId AND status IN (:delivered, :cancelled) AND created_at < :cutoff")
+                .parameterValues(Map.of("minId", minId, "maxId", maxId,
+                        "delivered", DELIVERED, "cancelled", CANCELLED, "cutoff", cutoff))
+                .sortKeys(Map.of("id", Order.ASCENDING))
+                .rowMapper(new SingleColumnRowMapper<>(Long.class))
+                .pageSize(pageSize)
+                .build();
+    }
+}
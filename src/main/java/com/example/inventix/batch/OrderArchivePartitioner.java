@@ -0,0 +1,57 @@
+package com.example.inventix.batch;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Splits the id range of archivable orders into one contiguous slice per worker thread.
+ * Each slice is a separate step execution, so a failed slice can be restarted on its own.
+ */
+public class OrderArchivePartitioner implements Partitioner {
+
+    static final String MIN_ID = "minId";
+    static final String MAX_ID = "maxId";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LocalDateTime cutoff;
+    private final int partitions;
+
+    public OrderArchivePartitioner(JdbcTemplate jdbcTemplate, LocalDateTime cutoff, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("At least one partition is required: " + partitions);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.cutoff = cutoff;
+        this.partitions = partitions;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM orders " +
+                        "WHERE status IN (?, ?) AND created_at < ?",
+                OrderArchiveJobConfig.DELIVERED, OrderArchiveJobConfig.CANCELLED, cutoff);
+
+        Map<String, ExecutionContext> slices = new HashMap<>();
+        if (bounds.get("min_id") == null) {
+            return slices;
+        }
+        long min = ((Number) bounds.get("min_id")).longValue();
+        long max = ((Number) bounds.get("max_id")).longValue();
+        long width = Math.max(1, (max - min + partitions) / partitions);
+
+        int index = 0;
+        for (long from = min; from <= max; from += width) {
+            ExecutionContext slice = new ExecutionContext();
+            slice.putLong(MIN_ID, from);
+            slice.putLong(MAX_ID, Math.min(from + width - 1, max));
+            slices.put("partition" + index++, slice);
+        }
+        return slices;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.inventix.batch;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+
+/**
+ * Outcome of one order archive run, summed over its partitions.
+ */
+public record OrderArchiveResult(
+        Long executionId,
+        BatchStatus status,
+        int partitions,
+        long archivedOrders,
+        String exitDescription) {
+
+    public static OrderArchiveResult from(JobExecution execution) {
+        int partitions = 0;
+        long archived = 0;
+        for (StepExecution step : execution.getStepExecutions()) {
+            // The manager step aggregates its partitions' counts, so only workers are summed
+            if (step.getStepName().contains(":partition")) {
+                partitions++;
+                archived += step.getWriteCount();
+            }
+        }
+        return new OrderArchiveResult(execution.getId(), execution.getStatus(), partitions, archived,
+                execution.getExitStatus().getExitDescription());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.inventix.batch;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Moves a chunk of orders and their items into the archive tables with four set-based
+ * statements, all in the chunk's transaction.
+ */
+@Component
+public class OrderArchiveWriter implements ItemWriter<Long> {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public OrderArchiveWriter(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void write(Chunk<? extends Long> orderIds) {
+        Map<String, Object> ids = Map.of("ids", orderIds.getItems());
+        jdbcTemplate.update("INSERT INTO orders_archive (id, status, total_amount, created_at, updated_at, archived_at) " +
+                "SELECT id, status, total_amount, created_at, updated_at, CURRENT_TIMESTAMP FROM orders WHERE id IN (:ids)", ids);
+        jdbcTemplate.update("INSERT INTO order_item_archive (id, order_id, product_id, quantity, price_per_unit, subtotal) " +
+                "SELECT id, order_id, product_id, quantity, price_per_unit, subtotal FROM order_item WHERE order_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM order_item WHERE order_id IN (:ids)", ids);
+        jdbcTemplate.update("DELETE FROM orders WHERE id IN (:ids)", ids);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.inventix.batch;
+
+import com.example.inventix.model.Product;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of the product import CSV: {@code sku,name,description,price,quantity}.
+ */
+public record ProductCsvRow(
+        @NotBlank String sku,
+        @NotBlank String name,
+        String description,
+        @NotNull @PositiveOrZero BigDecimal price,
+        @NotNull @PositiveOrZero Integer quantity) {
+
+    public static final String[] COLUMNS = {"sku", "name", "description", "price", "quantity"};
+
+    /**
+     * Copies the catalog fields. The quantity is left to the writer, which knows where the
+     * product's stock is kept.
+     */
+    void applyTo(Product product) {
+        product.setSku(sku);
+        product.setName(name);
+        product.setDescription(description);
+        product.setPrice(price);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.inventix.batch;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.validator.BeanValidatingItemProcessor;
+import org.springframework.batch.item.validator.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Streams a product CSV (header line, then {@code sku,name,description,price,quantity}) and
+ * upserts it by SKU in chunks. Unparseable and invalid rows are skipped and reported. The
+ * reader's position is saved with every committed chunk, so a failed run started again with
+ * the same parameters resumes after the last committed chunk.
+ */
+@Configuration
+public class ProductImportJobConfig {
+
+    public static final String JOB_NAME = "productImportJob";
+    public static final String INPUT_FILE_PARAMETER = "input.file";
+
+    @Bean
+    public Job productImportJob(JobRepository jobRepository, Step productImportStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(productImportStep)
+                .build();
+    }
+
+    @Bean
+    public Step productImportStep(JobRepository jobRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  FlatFileItemReader<ProductCsvRow> productCsvReader,
+                                  BeanValidatingItemProcessor<ProductCsvRow> productCsvValidator,
+                                  ProductUpsertWriter productUpsertWriter,
+                                  ProductImportSkipListener productImportSkipListener,
+                                  @Value("${inventix.import.chunk-size:1000}") int chunkSize,
+                                  @Value("${inventix.import.skip-limit:1000}") int skipLimit) {
+        return new StepBuilder("productImportStep", jobRepository)
+                .<ProductCsvRow, ProductCsvRow>chunk(chunkSize, transactionManager)
+                .reader(productCsvReader)
+                .processor(productCsvValidator)
+                .writer(productUpsertWriter)
+                .faultTolerant()
+                .skip(FlatFileParseException.class)
+                .skip(ValidationException.class)
+                .skipLimit(skipLimit)
+                .listener(productImportSkipListener)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public FlatFileItemReader<ProductCsvRow> productCsvReader(
+            @Value("#{jobParameters['" + INPUT_FILE_PARAMETER + "']}") String inputFile) {
+        return new FlatFileItemReaderBuilder<ProductCsvRow>()
+                .name("productCsvReader")
+                .resource(new FileSystemResource(inputFile))
+                .linesToSkip(1)
+                .delimited()
+                .names(ProductCsvRow.COLUMNS)
+                .targetType(ProductCsvRow.class)
+                .build();
+    }
+
+    @Bean
+    public BeanValidatingItemProcessor<ProductCsvRow> productCsvValidator() {
+        BeanValidatingItemProcessor<ProductCsvRow> validator = new BeanValidatingItemProcessor<>();
+        validator.setFilter(false); // Throw, so invalid rows are skipped and reported rather than dropped silently
+        return validator;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.inventix.batch;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+
+/**
+ * Outcome of one product import run. Counts cover this execution only; a restarted run
+ * reports the rows it processed after resuming.
+ */
+public record ProductImportResult(
+        Long executionId,
+        BatchStatus status,
+        long readCount,
+        long writeCount,
+        long skippedUnparseable,
+        long skippedInvalid,
+        String exitDescription) {
+
+    public static ProductImportResult from(JobExecution execution) {
+        long read = 0;
+        long written = 0;
+        long unparseable = 0;
+        long invalid = 0;
+        for (StepExecution step : execution.getStepExecutions()) {
+            read += step.getReadCount();
+            written += step.getWriteCount();
+            unparseable += step.getReadSkipCount();
+            invalid += step.getProcessSkipCount();
+        }
+        return new ProductImportResult(execution.getId(), execution.getStatus(), read, written,
+                unparseable, invalid, execution.getExitStatus().getExitDescription());
+    }
+}
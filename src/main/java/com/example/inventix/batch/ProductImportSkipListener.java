@@ -0,0 +1,30 @@
+package com.example.inventix.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports every row the import skips, with the reason, so a partial import can be fixed up.
+ */
+@Component
+public class ProductImportSkipListener implements SkipListener<ProductCsvRow, ProductCsvRow> {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportSkipListener.class);
+
+    @Override
+    public void onSkipInRead(Throwable t) {
+        if (t instanceof FlatFileParseException e) {
+            log.warn("Skipped unparseable product row at line {}: {}", e.getLineNumber(), e.getInput());
+        } else {
+            log.warn("Skipped unreadable product row: {}", t.getMessage());
+        }
+    }
+
+    @Override
+    public void onSkipInProcess(ProductCsvRow row, Throwable t) {
+        log.warn("Skipped invalid product row for sku '{}': {}", row.sku(), t.getMessage());
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.inventix.batch;
+
+import com.example.inventix.config.CacheConfig;
+import com.example.inventix.event.ProductChangedEvent;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.stock.StockBuckets;
+import com.example.inventix.stock.StockChangedEvent;
+import com.example.inventix.stock.StockLedger;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Upserts a chunk of CSV rows by SKU. Existing products are looked up with one
+ * {@code findAllBySkuIn} and updated in place; new ones are persisted. Both are flushed
+ * as JDBC batches when the chunk transaction commits, after which the search index picks up
+ * every written product.
+ * <p>
+ * Quantities go where {@code ProductService.updateProduct} puts them: into the product row,
+ * or, for an existing product whose stock the {@link StockLedger} or its {@link StockBuckets}
+ * own, through {@link StockLedger#set} or {@link StockBuckets#refill}. Writing the row there
+ * would be overwritten by the next ledger flush, or never read by a bucket reservation. Each
+ * written quantity is announced as a {@link StockChangedEvent}, so it reaches the stock
+ * movement journal, the outbox and the low-stock alerts like any other adjustment.
+ */
+@Component
+public class ProductUpsertWriter implements ItemWriter<ProductCsvRow> {
+
+    private final ProductRepository productRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    // Present only with inventix.stock.ledger.enabled
+    private final StockLedger stockLedger;
+    private final StockBuckets stockBuckets;
+
+    @Autowired
+    public ProductUpsertWriter(ProductRepository productRepository,
+                               CacheManager cacheManager,
+                               ApplicationEventPublisher eventPublisher,
+                               ObjectProvider<StockLedger> stockLedger,
+                               StockBuckets stockBuckets) {
+        this.productRepository = productRepository;
+        this.cacheManager = cacheManager;
+        this.eventPublisher = eventPublisher;
+        this.stockLedger = stockLedger.getIfAvailable();
+        this.stockBuckets = stockBuckets;
+    }
+
+    @Override
+    public void write(Chunk<? extends ProductCsvRow> chunk) {
+        // A SKU repeated within the chunk is written once, with its last row
+        Map<String, ProductCsvRow> rowsBySku = new LinkedHashMap<>();
+        chunk.forEach(row -> rowsBySku.put(row.sku(), row));
+
+        Map<String, Product> existing = productRepository.findAllBySkuIn(rowsBySku.keySet()).stream()
+                .collect(Collectors.toMap(Product::getSku, Function.identity()));
+
+        List<Product> created = new ArrayList<>();
+        // Existing products whose stock is kept outside the product row
+        List<Product> heldElsewhere = new ArrayList<>();
+        rowsBySku.forEach((sku, row) -> {
+            Product product = existing.get(sku);
+            if (product == null) {
+                product = new Product();
+                created.add(product);
+                product.setQuantity(row.quantity());
+            } else if (stockLedger != null || product.getStockBuckets() > 0) {
+                heldElsewhere.add(product);
+            } else {
+                product.setQuantity(row.quantity());
+            }
+            row.applyTo(product);
+        });
+        productRepository.saveAll(created);
+        // After the saves: refilling buckets flushes and clears the persistence context
+        heldElsewhere.forEach(product -> {
+            int quantity = rowsBySku.get(product.getSku()).quantity();
+            if (stockLedger != null) {
+                stockLedger.set(product.getId(), quantity);
+            } else {
+                stockBuckets.refill(product.getId(), product.getStockBuckets(), quantity);
+            }
+        });
+
+        evictAfterCommit(existing.values().stream().map(Product::getId).toList());
+        existing.values().forEach(product -> publishChanged(product, rowsBySku.get(product.getSku())));
+        created.forEach(product -> publishChanged(product, rowsBySku.get(product.getSku())));
+    }
+
+    private void publishChanged(Product product, ProductCsvRow row) {
+        eventPublisher.publishEvent(ProductChangedEvent.saved(product));
+        eventPublisher.publishEvent(StockChangedEvent.set(product.getId(), row.quantity()));
+    }
+
+    /**
+     * Evicts the updated products once the chunk commits: an eviction inside the transaction
+     * lets a concurrent read re-cache the pre-import row before the new one is visible.
+     */
+    private void evictAfterCommit(List<Long> ids) {
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ids.forEach(cache::evict);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(cache::evict);
+            }
+        });
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.inventix.catalog;
+
+import com.example.inventix.dto.ProductView;
+
+import java.util.List;
+
+/**
+ * The products changed and deleted after a catalog version, up to and including
+ * {@code version}. A client stores {@code version} and asks for the changes since it next time.
+ */
+public record CatalogDelta(long version, List<ProductView> products, List<Long> deletedIds) {
+}
@@ -0,0 +1,29 @@
+package com.example.inventix.catalog;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * A catalog version with the time it was reached, as validators for conditional GETs. Used for
+ * the whole catalog and for single products, whose version is that of their last change.
+ */
+public record CatalogVersion(long version, Instant lastModified) {
+
+    // Used by the product version query; rows never changed through the application have neither
+    public CatalogVersion(Long version, LocalDateTime lastModified) {
+        this(version != null ? version : 0L,
+                lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant() : null);
+    }
+
+    /**
+     * Weak, since the same version may be sent in more than one encoding.
+     */
+    public String etag() {
+        return "W/\"" + version + "\"";
+    }
+
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.toEpochMilli() : -1;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.inventix.catalog;
+
+import com.example.inventix.event.ProductChangedEvent;
+import com.example.inventix.model.ProductTombstone;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.repository.ProductTombstoneRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the catalog version: a counter that moves with every committed catalog edit, so
+ * readers can tell whether the catalog changed without reading it.
+ * <p>
+ * A transaction that created, edited or deleted products, as seen through
+ * {@link ProductChangedEvent}s, takes the next version just before it commits and stamps it
+ * with the time on every product it touched, in one statement; a deleted product gets a
+ * {@link ProductTombstone} instead. Stock movements are not catalog edits and are not tracked:
+ * stamping them would lock the product row on every checkout, which the stock buckets and the
+ * ledger exist to avoid. {@link #current} never moves past a version whose transaction is still
+ * in flight, so a reader that saw version {@code v} finds every change up to {@code v}
+ * committed. Rolled-back transactions leave gaps.
+ * <p>
+ * The counter lives in memory and is recovered from the highest stamped version on startup, so
+ * like the search index it assumes a single instance writes the catalog.
+ */
+@Component
+public class CatalogVersionTracker {
+
+    private final ProductRepository productRepository;
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    // Both guarded by this; inFlight holds versions taken by transactions not yet completed
+    private long issued;
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private volatile CatalogVersion current;
+
+    @Autowired
+    public CatalogVersionTracker(ProductRepository productRepository,
+                                 ProductTombstoneRepository tombstoneRepository,
+                                 EntityManager entityManager,
+                                 TransactionTemplate transactionTemplate) {
+        this.productRepository = productRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public synchronized void recover() {
+        Long products = productRepository.findMaxCatalogVersion();
+        Long tombstones = tombstoneRepository.findMaxCatalogVersion();
+        issued = Math.max(products != null ? products : 0, tombstones != null ? tombstones : 0);
+        // Changes made before the restart are not timed, so clients revalidate once
+        current = new CatalogVersion(issued, Instant.now());
+    }
+
+    /**
+     * The newest version whose changes, and all before them, are committed. Never blocks.
+     */
+    public CatalogVersion current() {
+        return current;
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            transactionChanges().add(event.productId(), event.deleted());
+        } else {
+            transactionTemplate.executeWithoutResult(status -> transactionChanges().add(event.productId(), event.deleted()));
+        }
+    }
+
+    private synchronized long issue() {
+        inFlight.add(++issued);
+        return issued;
+    }
+
+    private synchronized void complete(long version, boolean committed) {
+        inFlight.remove(version);
+        long stable = inFlight.isEmpty() ? issued : inFlight.first() - 1;
+        current = new CatalogVersion(stable, committed ? Instant.now() : current.lastModified());
+    }
+
+    private TransactionChanges transactionChanges() {
+        // Only the current transaction's synchronizations are visible, not those of a suspended one
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TransactionChanges changes && changes.tracker() == this) {
+                return changes;
+            }
+        }
+        TransactionChanges changes = new TransactionChanges();
+        TransactionSynchronizationManager.registerSynchronization(changes);
+        return changes;
+    }
+
+    private final class TransactionChanges implements TransactionSynchronization {
+
+        private final Set<Long> changed = new HashSet<>();
+        private final Set<Long> deleted = new HashSet<>();
+        private long version;
+
+        CatalogVersionTracker tracker() {
+            return CatalogVersionTracker.this;
+        }
+
+        void add(Long productId, boolean isDeleted) {
+            (isDeleted ? deleted : changed).add(productId);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            changed.removeAll(deleted);
+            version = issue();
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            if (!changed.isEmpty()) {
+                productRepository.stampCatalogVersion(changed, version, now);
+            }
+            // Flushed with the rest of the transaction
+            deleted.forEach(productId -> entityManager.persist(new ProductTombstone(productId, version, now)));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (version != 0) {
+                complete(version, status == STATUS_COMMITTED);
+            }
+        }
+    }
+}
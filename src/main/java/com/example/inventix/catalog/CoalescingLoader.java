@@ -0,0 +1,156 @@
+package com.example.inventix.catalog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Looks values up by id, merging lookups that overlap in time. A lookup of an id that is
+ * already being read waits for that read (single flight); otherwise its id joins the open batch,
+ * which is read in one query once {@code windowNanos} have passed since its first id or it holds
+ * {@code maxBatchSize} ids. Callers block until their value is read. With {@code enabled} false
+ * every lookup reads on its own, still counted, so the metrics compare like for like.
+ */
+class CoalescingLoader<T> {
+
+    private final Function<Long, Optional<T>> readOne;
+    private final Function<Collection<Long>, Map<Long, T>> readMany;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService timer;
+    private final Executor readers;
+
+    private final ConcurrentMap<Long, CompletableFuture<Optional<T>>> inFlight = new ConcurrentHashMap<>();
+    private final Object batchLock = new Object();
+    // Guarded by batchLock
+    private List<Long> batch = new ArrayList<>();
+
+    private final Counter lookups;
+    private final Counter coalesced;
+    private final Counter queries;
+    private final DistributionSummary batchSizes;
+
+    CoalescingLoader(String name,
+                     Function<Long, Optional<T>> readOne,
+                     Function<Collection<Long>, Map<Long, T>> readMany,
+                     boolean enabled,
+                     long windowNanos,
+                     int maxBatchSize,
+                     ScheduledExecutorService timer,
+                     Executor readers,
+                     MeterRegistry meterRegistry) {
+        this.readOne = readOne;
+        this.readMany = readMany;
+        this.enabled = enabled;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+        this.timer = timer;
+        this.readers = readers;
+        this.lookups = Counter.builder("inventix.products.lookup.requests").tag("lookup", name).register(meterRegistry);
+        this.coalesced = Counter.builder("inventix.products.lookup.coalesced").tag("lookup", name)
+                .description("Lookups that waited for a read of the same id already in flight")
+                .register(meterRegistry);
+        this.queries = Counter.builder("inventix.products.lookup.queries").tag("lookup", name).register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("inventix.products.lookup.batch.size").tag("lookup", name)
+                .register(meterRegistry);
+        Gauge.builder("inventix.products.lookup.coalescing.ratio", this,
+                        loader -> loader.queries.count() == 0 ? 1 : loader.lookups.count() / loader.queries.count())
+                .tag("lookup", name)
+                .description("Lookups served per database query")
+                .register(meterRegistry);
+    }
+
+    Optional<T> find(Long id) {
+        lookups.increment();
+        if (!enabled) {
+            queries.increment();
+            batchSizes.record(1);
+            return readOne.apply(id);
+        }
+        CompletableFuture<Optional<T>> pending = new CompletableFuture<>();
+        CompletableFuture<Optional<T>> existing = inFlight.putIfAbsent(id, pending);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+        enqueue(id);
+        return await(pending);
+    }
+
+    private void enqueue(Long id) {
+        List<Long> full = null;
+        synchronized (batchLock) {
+            batch.add(id);
+            if (batch.size() >= maxBatchSize) {
+                full = batch;
+                batch = new ArrayList<>();
+            } else if (batch.size() == 1) {
+                // A timer left over from a batch cut early only flushes the next one sooner
+                timer.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            List<Long> ids = full;
+            readers.execute(() -> read(ids));
+        }
+    }
+
+    private void flush() {
+        List<Long> ids;
+        synchronized (batchLock) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            ids = batch;
+            batch = new ArrayList<>();
+        }
+        readers.execute(() -> read(ids));
+    }
+
+    private void read(List<Long> ids) {
+        queries.increment();
+        batchSizes.record(ids.size());
+        Map<Long, T> found;
+        try {
+            found = ids.size() == 1
+                    ? readOne.apply(ids.get(0)).map(value -> Map.of(ids.get(0), value)).orElse(Map.of())
+                    : readMany.apply(ids);
+        } catch (Throwable e) {
+            // Errors too: a lookup left in flight would block every caller of its id for good
+            ids.forEach(id -> inFlight.remove(id).completeExceptionally(e));
+            if (e instanceof Error error) {
+                throw error;
+            }
+            return;
+        }
+        // Removed first, so a lookup arriving from here on reads afresh rather than take this result
+        ids.forEach(id -> inFlight.remove(id).complete(Optional.ofNullable(found.get(id))));
+    }
+
+    private static <T> Optional<T> await(CompletableFuture<Optional<T>> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
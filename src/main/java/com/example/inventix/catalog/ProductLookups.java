@@ -0,0 +1,78 @@
+package com.example.inventix.catalog;
+
+import com.example.inventix.dto.ProductView;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Single-product reads by id that coalesce under load: a promotion sends thousands of
+ * concurrent lookups for the same few products, and each would otherwise be its own query.
+ * Concurrent lookups of one id share a read, and ids looked up within {@code window} of each
+ * other are read together with one {@code IN} query (see {@link CoalescingLoader}). The price
+ * is latency: with coalescing enabled, every lookup waits up to {@code window} for its batch,
+ * even when nothing else is being looked up.
+ * <p>
+ * Reads run on virtual threads in their own read-only transactions, so callers already inside
+ * a transaction should read directly: they hold a pooled connection, and waiting on a read that
+ * needs another one could exhaust the pool. Metrics are tagged {@code lookup=product|view}.
+ */
+@Component
+public class ProductLookups {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("product-lookup-timer").daemon().factory());
+    private final ExecutorService readers = Executors.newVirtualThreadPerTaskExecutor();
+    private final CoalescingLoader<Product> products;
+    private final CoalescingLoader<ProductView> views;
+
+    @Autowired
+    public ProductLookups(ProductRepository productRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${inventix.products.lookup.coalescing-enabled:true}") boolean enabled,
+                          @Value("${inventix.products.lookup.window:2ms}") Duration window,
+                          @Value("${inventix.products.lookup.max-batch-size:100}") int maxBatchSize) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        this.products = new CoalescingLoader<>("product",
+                id -> readOnly.execute(status -> productRepository.findById(id)),
+                ids -> readOnly.execute(status -> productRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()))),
+                enabled, window.toNanos(), maxBatchSize, timer, readers, meterRegistry);
+        this.views = new CoalescingLoader<>("view",
+                id -> readOnly.execute(status -> productRepository.findViewById(id)),
+                ids -> readOnly.execute(status -> productRepository.findViewsByIds(ids).stream()
+                        .collect(Collectors.toMap(ProductView::id, Function.identity()))),
+                enabled, window.toNanos(), maxBatchSize, timer, readers, meterRegistry);
+    }
+
+    public Optional<Product> findProduct(Long id) {
+        return products.find(id);
+    }
+
+    public Optional<ProductView> findView(Long id) {
+        return views.find(id);
+    }
+
+    @PreDestroy
+    public void close() {
+        // Batches still waiting for their window are read before the readers stop
+        timer.close();
+        readers.close();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.inventix.config;
+
+import com.example.inventix.model.Product;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.retry.listener.MethodInvocationRetryListenerSupport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts optimistic lock conflicts on the retried service methods, tagged by operation and by
+ * the contended SKU for product updates. Other operations are tagged {@code key=none}: their
+ * ids are unbounded and would register a meter per row.
+ * <ul>
+ *     <li>{@code inventix.optimistic.conflicts} - every failed attempt</li>
+ *     <li>{@code inventix.optimistic.recovered} - calls that succeeded after at least one retry</li>
+ *     <li>{@code inventix.optimistic.exhausted} - calls that gave up after the last attempt</li>
+ * </ul>
+ */
+@Component(RetryConfig.OPTIMISTIC_LOCK_LISTENER)
+public class OptimisticLockRetryListener extends MethodInvocationRetryListenerSupport {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimisticLockRetryListener.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public OptimisticLockRetryListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected <T, E extends Throwable> void doOnError(RetryContext context,
+                                                      MethodInvocationRetryCallback<T, E> callback,
+                                                      Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            counter("inventix.optimistic.conflicts", callback).increment();
+            log.debug("Optimistic lock conflict on {} (attempt {})", callback.getLabel(), context.getRetryCount());
+        }
+    }
+
+    @Override
+    protected <T, E extends Throwable> void doClose(RetryContext context,
+                                                    MethodInvocationRetryCallback<T, E> callback,
+                                                    Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            counter("inventix.optimistic.exhausted", callback).increment();
+            log.warn("Gave up on {} after {} optimistic lock conflicts", callback.getLabel(), context.getRetryCount());
+        } else if (throwable == null && context.getRetryCount() > 0) {
+            counter("inventix.optimistic.recovered", callback).increment();
+        }
+    }
+
+    private Counter counter(String name, MethodInvocationRetryCallback<?, ?> callback) {
+        return Counter.builder(name)
+                .tag("operation", callback.getInvocation().getMethod().getName())
+                .tag("key", contendedKey(callback.getInvocation().getArguments()))
+                .register(meterRegistry);
+    }
+
+    private static String contendedKey(Object[] arguments) {
+        for (Object argument : arguments) {
+            if (argument instanceof Product product && product.getSku() != null) {
+                return product.getSku();
+            }
+        }
+        return "none";
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.inventix.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Enables {@code @Retryable} on the service layer. Retry advice runs outside the transaction
+ * advice, so every attempt starts a fresh transaction and re-reads the rows it modifies.
+ */
+@Configuration
+@EnableRetry
+public class RetryConfig {
+
+    public static final String OPTIMISTIC_LOCK_LISTENER = "optimisticLockRetryListener";
+}
@@ -0,0 +1,61 @@
+package com.example.inventix.controller;
+
+import com.example.inventix.analytics.LowStockProduct;
+import com.example.inventix.analytics.ProductSales;
+import com.example.inventix.analytics.StatusRevenue;
+import com.example.inventix.model.ProductDailySales;
+import com.example.inventix.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final AnalyticsService analyticsService;
+    private final int defaultLowStockThreshold;
+
+    @Autowired
+    public AnalyticsController(AnalyticsService analyticsService,
+                               @Value("${inventix.analytics.low-stock-threshold:10}") int defaultLowStockThreshold) {
+        this.analyticsService = analyticsService;
+        this.defaultLowStockThreshold = defaultLowStockThreshold;
+    }
+
+    @GetMapping("/sales/daily")
+    public ResponseEntity<List<ProductDailySales>> getDailySales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long productId) {
+        return ResponseEntity.ok(analyticsService.getDailySales(from, to, productId));
+    }
+
+    @GetMapping("/sales/top")
+    public ResponseEntity<List<ProductSales>> getTopProducts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(analyticsService.getTopProducts(from, to, limit));
+    }
+
+    @GetMapping("/revenue/by-status")
+    public ResponseEntity<List<StatusRevenue>> getRevenueByStatus() {
+        return ResponseEntity.ok(analyticsService.getRevenueByStatus());
+    }
+
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<LowStockProduct>> getLowStockProducts(@RequestParam(required = false) Integer threshold) {
+        return ResponseEntity.ok(analyticsService.getLowStockProducts(threshold != null ? threshold : defaultLowStockThreshold));
+    }
+
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<Integer> rebuildSales() {
+        return ResponseEntity.ok(analyticsService.rebuildSales());
+    }
+}
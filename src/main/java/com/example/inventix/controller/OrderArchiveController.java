@@ -0,0 +1,41 @@
+package com.example.inventix.controller;
+
+import com.example.inventix.batch.OrderArchiveResult;
+import com.example.inventix.service.OrderArchiveService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/orders/archive")
+public class OrderArchiveController {
+
+    private final OrderArchiveService orderArchiveService;
+    private final int defaultThreads;
+
+    @Autowired
+    public OrderArchiveController(OrderArchiveService orderArchiveService,
+                                  @Value("${inventix.archive.threads:4}") int defaultThreads) {
+        this.orderArchiveService = orderArchiveService;
+        this.defaultThreads = defaultThreads;
+    }
+
+    @PostMapping
+    public ResponseEntity<OrderArchiveResult> archiveOrders(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before,
+            @RequestParam(required = false) Integer threads) {
+        try {
+            OrderArchiveResult result = orderArchiveService.archiveOrders(before, threads != null ? threads : defaultThreads);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -1,48 +1,104 @@
 package com.example.inventix.controller;
 
+import com.example.inventix.dto.OrderView;
 import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
 import com.example.inventix.service.OrderService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, ObjectMapper objectMapper) {
         this.orderService = orderService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public List<Order> getAllOrders() {
-        return orderService.getAllOrders();
+    public ResponseEntity<List<OrderView>> getOrders(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<OrderView> page = orderService.getOrderViewsAfter(after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            // Keyset cursor: the next page starts after the last id of this one
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.get(page.size() - 1).id())
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOrders() {
+        ObjectWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> orderService.streamAllOrderViews(order -> {
+            try {
+                writer.writeValue(out, order);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Order> getOrderById(@PathVariable long id) {
-        Order order = orderService.getOrderById(id);
-        return ResponseEntity.ok(order);
+    public ResponseEntity<OrderView> getOrderById(@PathVariable long id) {
+        return ResponseEntity.ok(orderService.getOrderView(id));
     }
 
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody Order order) {
+    public ResponseEntity<OrderView> createOrder(@RequestBody Order order) {
         Order createdOrder = orderService.createOrder(order);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
+        return ResponseEntity.status(HttpStatus.CREATED).body(OrderView.of(createdOrder));
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<OrderView> createBulkOrder(@RequestBody Order order) {
+        List<OrderItem> orderItems = order.getOrderItems() != null ? order.getOrderItems() : List.of();
+        try {
+            Order createdOrder = orderService.createBulkOrder(order, orderItems);
+            return ResponseEntity.status(HttpStatus.CREATED).body(OrderView.of(createdOrder));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PutMapping("/id")
-    public ResponseEntity<Order> updateOrder(
+    public ResponseEntity<OrderView> updateOrder(
             @PathVariable long id,
             @RequestBody Order orderDetails) {
         Order updatedOrder = orderService.updateOrder(id, orderDetails);
-        return ResponseEntity.ok(updatedOrder);
+        return ResponseEntity.ok(OrderView.of(updatedOrder));
     }
 
     @DeleteMapping("/id")
@@ -51,4 +107,13 @@ public class OrderController {
         return ResponseEntity.noContent().build();
     }
 
+    @GetMapping("/revenue")
+    public ResponseEntity<BigDecimal> getTotalRevenue() {
+        return ResponseEntity.ok(orderService.getTotalRevenue());
+    }
+
+    @PostMapping("/totals/repair")
+    public ResponseEntity<Integer> repairTotals() {
+        return ResponseEntity.ok(orderService.repairTotals());
+    }
 }
@@ -0,0 +1,56 @@
+package com.example.inventix.controller;
+
+import com.example.inventix.exception.OrderIntakeFullException;
+import com.example.inventix.intake.OrderTicket;
+import com.example.inventix.model.Order;
+import com.example.inventix.service.OrderIntakeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/orders/intake")
+@ConditionalOnProperty(name = "inventix.orders.intake.enabled", havingValue = "true")
+public class OrderIntakeController {
+
+    private final OrderIntakeService orderIntakeService;
+
+    @Autowired
+    public OrderIntakeController(OrderIntakeService orderIntakeService) {
+        this.orderIntakeService = orderIntakeService;
+    }
+
+    /**
+     * Queues the order and answers 202 with a tracking ticket; poll the Location to follow it.
+     * A full queue answers 503 so clients back off instead of piling up requests.
+     */
+    @PostMapping
+    public ResponseEntity<OrderTicket> submitOrder(@RequestBody Order order) {
+        try {
+            OrderTicket ticket = orderIntakeService.submit(order);
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{trackingId}")
+                    .buildAndExpand(ticket.trackingId())
+                    .toUri();
+            return ResponseEntity.accepted().location(location).body(ticket);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OrderIntakeFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .build();
+        }
+    }
+
+    @GetMapping("/{trackingId}")
+    public ResponseEntity<OrderTicket> getTicket(@PathVariable UUID trackingId) {
+        return ResponseEntity.ok(orderIntakeService.getTicket(trackingId));
+    }
+}
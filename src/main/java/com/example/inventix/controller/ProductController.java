@@ -1,48 +1,217 @@
 package com.example.inventix.controller;
 
+import com.example.inventix.catalog.CatalogDelta;
+import com.example.inventix.catalog.CatalogVersion;
+import com.example.inventix.dto.ProductView;
+import com.example.inventix.exception.ProductVersionConflictException;
 import com.example.inventix.model.Product;
+import com.example.inventix.model.StockMovement;
 import com.example.inventix.service.ProductService;
+import com.example.inventix.stock.StockHistoryPoint;
+import com.example.inventix.stock.StockLevel;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final ProductService productService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ObjectMapper objectMapper) {
         this.productService = productService;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Every page carries the catalog version as its ETag, so a client holding a page can
+     * revalidate it with If-None-Match and get a 304 without the catalog being read. Stock is
+     * not part of the catalog: quantities are read from {@code /{id}/stock}.
+     */
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<List<ProductView>> getProducts(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit,
+            WebRequest request) {
+        CatalogVersion catalog = productService.getCatalogVersion();
+        if (request.checkNotModified(catalog.etag(), catalog.lastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<ProductView> page = productService.getProductViewsAfter(after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            // Keyset cursor: the next page starts after the last id of this one
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.get(page.size() - 1).id())
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        ObjectWriter writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> productService.streamAllProductViews(product -> {
+            try {
+                writer.writeValue(out, product);
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Products changed and deleted after catalog version {@code since}. A full page links to
+     * the next one, which continues inside the version the page ended in.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<CatalogDelta> getCatalogChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "1000") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        CatalogDelta delta = productService.getCatalogChanges(since, after != null ? after : Long.MAX_VALUE, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (delta.products().size() == pageSize) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("since", delta.version())
+                    .replaceQueryParam("after", delta.products().get(pageSize - 1).id())
+                    .replaceQueryParam("limit", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(delta);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductView>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.searchProducts(q, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)))
+                .stream().map(ProductView::of).toList());
     }
 
+    /**
+     * Validated against the product's own catalog version and update time, read without
+     * loading the product.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
-        Product product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+    public ResponseEntity<ProductView> getProductById(@PathVariable Long id, WebRequest request) {
+        Optional<CatalogVersion> version = productService.getProductCatalogVersion(id);
+        if (version.isPresent() && request.checkNotModified(version.get().etag(), version.get().lastModifiedMillis())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(productService.getProductView(id));
+    }
+
+    @GetMapping("/sku/{sku}")
+    public ResponseEntity<ProductView> getProductBySku(@PathVariable String sku) {
+        Product product = productService.getProductBySku(sku);
+        return ResponseEntity.ok(ProductView.of(product));
+    }
+
+    @PostMapping("/sku/lookup")
+    public List<ProductView> getProductsBySkus(@RequestBody List<String> skus) {
+        return productService.getProductsBySkus(skus).stream().map(ProductView::of).toList();
     }
 
     @PostMapping
-    public ResponseEntity<Product> createProduct(@RequestBody Product product) {
+    public ResponseEntity<ProductView> createProduct(@RequestBody Product product) {
         Product createdProduct = productService.createProduct(product);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdProduct);
+        return ResponseEntity.status(HttpStatus.CREATED).body(ProductView.of(createdProduct));
     }
 
+    /**
+     * An If-Match with the ETag of {@code GET /{id}}, or a {@code catalogVersion} in the body,
+     * makes the update conditional: if the product was edited since, it answers 409.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Product> updateProduct(
+    public ResponseEntity<ProductView> updateProduct(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody Product productDetails) {
-        Product updatedProduct = productService.updateProduct(id, productDetails);
-        return ResponseEntity.ok(updatedProduct);
+        if (ifMatch != null) {
+            Long expected = parseCatalogVersion(ifMatch);
+            if (expected == null) {
+                return ResponseEntity.badRequest().build();
+            }
+            productDetails.setCatalogVersion(expected);
+        }
+        try {
+            Product updatedProduct = productService.updateProduct(id, productDetails);
+            return ResponseEntity.ok(ProductView.of(updatedProduct));
+        } catch (ProductVersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/{id}/stock-buckets")
+    public ResponseEntity<ProductView> setStockBuckets(@PathVariable Long id, @RequestParam int count) {
+        if (count < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ProductView.of(productService.setStockBuckets(id, count)));
+    }
+
+    /**
+     * The live available quantity, wherever the product's stock is kept. Never cached.
+     */
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<StockLevel> getStockLevel(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.getStockLevel(id));
+    }
+
+    @GetMapping("/{id}/stock/history")
+    public ResponseEntity<StockHistoryPoint> getStockLevelAt(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.of(productService.getStockLevelAt(id, at));
+    }
+
+    @GetMapping("/{id}/stock/movements")
+    public ResponseEntity<List<StockMovement>> getStockMovements(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > 1000 || from.isAfter(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getStockMovements(id, from, to, limit));
     }
 
     @DeleteMapping("/{id}")
@@ -50,4 +219,23 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * The version in a single entity tag as written by {@link CatalogVersion#etag()}, weak or
+     * strong; null for anything else.
+     */
+    private static Long parseCatalogVersion(String etag) {
+        String tag = etag.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.inventix.dto;
+
+import com.example.inventix.model.OrderItem;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of an {@link OrderView}. The product is named by id, SKU and name rather than
+ * embedded; {@code orderId} only groups lines and is not serialized.
+ */
+public record OrderLineView(Long id, Long orderId, Long productId, String sku, String productName, int quantity,
+                            BigDecimal pricePerUnit, BigDecimal subtotal) {
+
+    public static OrderLineView of(OrderItem item, Long orderId) {
+        return item.getProduct() == null
+                ? new OrderLineView(item.getId(), orderId, null, null, null, item.getQuantity(), item.getPricePerUnit(), item.getSubtotal())
+                : new OrderLineView(item.getId(), orderId, item.getProduct().getId(), item.getProduct().getSku(),
+                item.getProduct().getName(), item.getQuantity(), item.getPricePerUnit(), item.getSubtotal());
+    }
+}
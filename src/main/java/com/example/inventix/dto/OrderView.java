@@ -0,0 +1,33 @@
+package com.example.inventix.dto;
+
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * An order as the API returns it. Reads build it from constructor-expression queries, one for
+ * the orders and one for all of their lines, so no entity or proxy is loaded.
+ */
+public record OrderView(Long id, OrderStatus status, BigDecimal totalAmount, LocalDateTime createdAt,
+                        LocalDateTime updatedAt, List<OrderLineView> orderItems) {
+
+    // Used by the order projection queries; the lines are attached afterwards
+    public OrderView(Long id, OrderStatus status, BigDecimal totalAmount, LocalDateTime createdAt,
+                     LocalDateTime updatedAt) {
+        this(id, status, totalAmount, createdAt, updatedAt, List.of());
+    }
+
+    public OrderView withItems(List<OrderLineView> items) {
+        return new OrderView(id, status, totalAmount, createdAt, updatedAt, items);
+    }
+
+    public static OrderView of(Order order) {
+        List<OrderLineView> items = order.getOrderItems() == null ? List.of()
+                : order.getOrderItems().stream().map(item -> OrderLineView.of(item, order.getId())).toList();
+        return new OrderView(order.getId(), order.getStatus(), order.getTotalAmount(), order.getCreatedAt(),
+                order.getUpdatedAt(), items);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.inventix.dto;
+
+import com.example.inventix.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A product as the API returns it: the catalog fields only, without the version, bucket count
+ * or reorder point. {@code quantity} includes any stock split across buckets.
+ * {@code catalogVersion} is that of the product's last committed change.
+ * <p>
+ * Reads validated by the catalog version leave {@code quantity} null: stock moves with every
+ * sale and is not versioned, so a 304 would otherwise serve a stale quantity.
+ */
+public record ProductView(Long id, String name, String sku, String description, BigDecimal price,
+                          Integer quantity, LocalDateTime updatedAt, Long catalogVersion) {
+
+    /**
+     * Without the quantity, for catalog reads.
+     */
+    public ProductView(Long id, String name, String sku, String description, BigDecimal price,
+                       LocalDateTime updatedAt, Long catalogVersion) {
+        this(id, name, sku, description, price, null, updatedAt, catalogVersion);
+    }
+
+    /**
+     * The catalog version is left out: a write is stamped only as it commits, after the entity
+     * it returns was read.
+     */
+    public static ProductView of(Product product) {
+        return new ProductView(product.getId(), product.getName(), product.getSku(), product.getDescription(),
+                product.getPrice(), product.getQuantity(), product.getUpdatedAt(), null);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.inventix.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Hand-written serializers for the API views. Each writes its fields straight to the
+ * generator in a fixed order, skipping bean introspection and any intermediate tree. The
+ * output matches what Jackson's defaults would write for the same fields.
+ */
+@JsonComponent
+public class ViewSerializers {
+
+    public static class ProductViewSerializer extends JsonSerializer<ProductView> {
+
+        @Override
+        public void serialize(ProductView product, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeNumber(gen, "id", product.id());
+            gen.writeStringField("name", product.name());
+            gen.writeStringField("sku", product.sku());
+            gen.writeStringField("description", product.description());
+            gen.writeNumberField("price", product.price());
+            if (product.quantity() == null) {
+                gen.writeNullField("quantity");
+            } else {
+                gen.writeNumberField("quantity", product.quantity());
+            }
+            writeDateTime(gen, "updatedAt", product.updatedAt());
+            writeNumber(gen, "catalogVersion", product.catalogVersion());
+            gen.writeEndObject();
+        }
+    }
+
+    public static class OrderViewSerializer extends JsonSerializer<OrderView> {
+
+        @Override
+        public void serialize(OrderView order, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject();
+            writeNumber(gen, "id", order.id());
+            gen.writeStringField("status", order.status() == null ? null : order.status().name());
+            gen.writeNumberField("totalAmount", order.totalAmount());
+            writeDateTime(gen, "createdAt", order.createdAt());
+            writeDateTime(gen, "updatedAt", order.updatedAt());
+            gen.writeArrayFieldStart("orderItems");
+            for (OrderLineView line : order.orderItems()) {
+                gen.writeStartObject();
+                writeNumber(gen, "id", line.id());
+                writeNumber(gen, "productId", line.productId());
+                gen.writeStringField("sku", line.sku());
+                gen.writeStringField("productName", line.productName());
+                gen.writeNumberField("quantity", line.quantity());
+                gen.writeNumberField("pricePerUnit", line.pricePerUnit());
+                gen.writeNumberField("subtotal", line.subtotal());
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, String field, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeNumberField(field, value.longValue());
+        }
+    }
+
+    // ISO-8601 without an offset, as the JavaTimeModule writes a LocalDateTime
+    private static void writeDateTime(JsonGenerator gen, String field, LocalDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNullField(field);
+        } else {
+            gen.writeStringField(field, DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        }
+    }
+}
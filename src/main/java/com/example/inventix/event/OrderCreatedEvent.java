@@ -0,0 +1,10 @@
+package com.example.inventix.event;
+
+import com.example.inventix.model.Order;
+
+/**
+ * Published by the order services once a new order, and any items it was created with, has
+ * been saved. Synchronous listeners run inside the creating transaction.
+ */
+public record OrderCreatedEvent(Order order) {
+}
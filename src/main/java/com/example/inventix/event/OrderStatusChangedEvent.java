@@ -0,0 +1,9 @@
+package com.example.inventix.event;
+
+import com.example.inventix.model.OrderStatus;
+
+/**
+ * Published by {@code OrderService#updateOrderStatus} inside the updating transaction.
+ */
+public record OrderStatusChangedEvent(Long orderId, OrderStatus previousStatus, OrderStatus status) {
+}
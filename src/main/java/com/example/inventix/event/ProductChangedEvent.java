@@ -0,0 +1,19 @@
+package com.example.inventix.event;
+
+import com.example.inventix.model.Product;
+
+/**
+ * Published whenever a product's searchable text may have changed: by {@code ProductService}
+ * on create, update and delete, and by the CSV import for every row it writes. A deleted
+ * product carries only its id.
+ */
+public record ProductChangedEvent(Long productId, String name, String sku, String description, boolean deleted) {
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(product.getId(), product.getName(), product.getSku(), product.getDescription(), false);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null, null, null, true);
+    }
+}
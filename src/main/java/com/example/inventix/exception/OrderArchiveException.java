@@ -0,0 +1,7 @@
+package com.example.inventix.exception;
+
+public class OrderArchiveException extends RuntimeException {
+    public OrderArchiveException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
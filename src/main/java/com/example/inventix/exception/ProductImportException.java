@@ -0,0 +1,7 @@
+package com.example.inventix.exception;
+
+public class ProductImportException extends RuntimeException {
+    public ProductImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.inventix.exception;
+
+public class ProductVersionConflictException extends RuntimeException {
+    public ProductVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.inventix.intake;
+
+import com.example.inventix.analytics.SalesAggregator;
+import com.example.inventix.event.OrderCreatedEvent;
+import com.example.inventix.exception.InsufficientStockException;
+import com.example.inventix.exception.ProductNotFoundException;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.OrderStatus;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.service.OrderService;
+import com.example.inventix.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Places one micro-batch of queued orders. Quantities are summed per product across the
+ * whole batch and reserved with one conditional update per product, in id order so that
+ * concurrent batches lock rows in the same sequence. Orders whose products all had enough
+ * stock are saved together; orders touching a short product are retried one by one so a
+ * single large order cannot cancel the rest of the batch.
+ */
+@Component
+public class OrderBatchProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderBatchProcessor.class);
+
+    private final ProductService productService;
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final SalesAggregator salesAggregator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public OrderBatchProcessor(ProductService productService,
+                               OrderService orderService,
+                               OrderRepository orderRepository,
+                               SalesAggregator salesAggregator,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager) {
+        this.productService = productService;
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.salesAggregator = salesAggregator;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Returns one updated ticket per queued order, in no particular order. Throws only before
+     * the batch commits, when none of its orders has been placed; an order retried on its own
+     * afterwards that fails unexpectedly is cancelled alone.
+     */
+    public List<OrderTicket> process(List<QueuedOrder> batch) {
+        List<OrderTicket> outcomes = new ArrayList<>(batch.size());
+
+        Set<Long> productIds = batch.stream()
+                .flatMap(queued -> queued.order().getOrderItems().stream())
+                .map(item -> item.getProduct().getId())
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productService.getProductsByIds(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<QueuedOrder> placeable = new ArrayList<>(batch.size());
+        for (QueuedOrder queued : batch) {
+            Long missing = queued.order().getOrderItems().stream()
+                    .map(item -> item.getProduct().getId())
+                    .filter(id -> !products.containsKey(id))
+                    .findFirst()
+                    .orElse(null);
+            if (missing != null) {
+                outcomes.add(queued.ticket().cancelled("Product not found with id: " + missing));
+            } else {
+                placeable.add(queued);
+            }
+        }
+
+        List<QueuedOrder> retries = new ArrayList<>();
+        List<OrderTicket> placed = transactionTemplate.execute(status -> placeBatch(placeable, products, retries));
+        outcomes.addAll(placed);
+
+        for (QueuedOrder queued : retries) {
+            outcomes.add(placeAlone(queued));
+        }
+        return outcomes;
+    }
+
+    private List<OrderTicket> placeBatch(List<QueuedOrder> placeable, Map<Long, Product> products,
+                                         List<QueuedOrder> retries) {
+        Map<Long, Integer> quantitiesByProduct = new TreeMap<>();
+        placeable.forEach(queued -> queued.order().getOrderItems()
+                .forEach(item -> quantitiesByProduct.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum)));
+
+        Set<Long> shortProducts = new HashSet<>();
+        quantitiesByProduct.forEach((id, quantity) -> {
+            if (!productService.tryReserveStock(id, quantity)) {
+                shortProducts.add(id);
+            }
+        });
+
+        List<QueuedOrder> accepted = new ArrayList<>(placeable.size());
+        for (QueuedOrder queued : placeable) {
+            boolean touchesShort = queued.order().getOrderItems().stream()
+                    .anyMatch(item -> shortProducts.contains(item.getProduct().getId()));
+            if (touchesShort) {
+                // Hand back what the batch reserved for this order's other lines before retrying it
+                queued.order().getOrderItems().stream()
+                        .filter(item -> !shortProducts.contains(item.getProduct().getId()))
+                        .forEach(item -> productService.releaseStock(item.getProduct().getId(), item.getQuantity()));
+                retries.add(queued);
+            } else {
+                accepted.add(queued);
+            }
+        }
+
+        List<Order> orders = new ArrayList<>(accepted.size());
+        for (QueuedOrder queued : accepted) {
+            Order order = queued.order();
+            order.setStatus(OrderStatus.PENDING);
+            for (OrderItem item : order.getOrderItems()) {
+                Product product = products.get(item.getProduct().getId());
+                item.setOrder(order);
+                item.setProduct(product);
+                item.setPricePerUnit(product.getPrice());
+                item.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+                salesAggregator.recordItem(item, order.getCreatedAt(), 1);
+            }
+            order.setTotalAmount(Order.sumSubtotals(order.getOrderItems()));
+            orders.add(order);
+        }
+        // Orders and their cascaded items go out as JDBC batches on commit
+        orderRepository.saveAll(orders);
+        orders.forEach(order -> eventPublisher.publishEvent(new OrderCreatedEvent(order)));
+
+        List<OrderTicket> tickets = new ArrayList<>(accepted.size());
+        for (QueuedOrder queued : accepted) {
+            tickets.add(queued.ticket().placed(queued.order().getId(), OrderStatus.PENDING));
+        }
+        return tickets;
+    }
+
+    private OrderTicket placeAlone(QueuedOrder queued) {
+        Order order = queued.order();
+        order.setStatus(OrderStatus.PENDING);
+        try {
+            Order saved = orderService.createBulkOrder(order, new ArrayList<>(order.getOrderItems()));
+            return queued.ticket().placed(saved.getId(), saved.getStatus());
+        } catch (InsufficientStockException | ProductNotFoundException e) {
+            log.debug("Cancelling queued order {}: {}", queued.trackingId(), e.getMessage());
+            return queued.ticket().cancelled(e.getMessage());
+        } catch (RuntimeException e) {
+            // The batch has committed by now; failing here must not take its placed orders with it
+            log.error("Failed to place queued order {}", queued.trackingId(), e);
+            return queued.ticket().cancelled("Order could not be placed");
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.inventix.intake;
+
+import com.example.inventix.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Where an order submitted to the async intake stands. {@code orderId} is set once the order
+ * has been persisted; {@code message} explains a cancellation.
+ */
+public record OrderTicket(
+        UUID trackingId,
+        OrderStatus status,
+        Long orderId,
+        String message,
+        LocalDateTime acceptedAt) {
+
+    public static OrderTicket queued(UUID trackingId) {
+        return new OrderTicket(trackingId, OrderStatus.QUEUED, null, null, LocalDateTime.now());
+    }
+
+    public OrderTicket placed(Long orderId, OrderStatus status) {
+        return new OrderTicket(trackingId, status, orderId, null, acceptedAt);
+    }
+
+    public OrderTicket cancelled(String message) {
+        return new OrderTicket(trackingId, OrderStatus.CANCELLED, orderId, message, acceptedAt);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.inventix.intake;
+
+import com.example.inventix.model.Order;
+
+import java.util.UUID;
+
+/**
+ * An order waiting in the intake queue together with the ticket it was accepted under.
+ */
+public record QueuedOrder(OrderTicket ticket, Order order) {
+
+    public UUID trackingId() {
+        return ticket.trackingId();
+    }
+}
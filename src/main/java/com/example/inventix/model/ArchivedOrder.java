@@ -0,0 +1,34 @@
+package com.example.inventix.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A DELIVERED or CANCELLED order moved out of {@code orders} by the archive job. Keeps the
+ * original id and no associations, so the archive stays compact.
+ */
+@Entity
+@Table(name = "orders_archive")
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ArchivedOrder {
+    @Id
+    private Long id;
+    private OrderStatus status;
+    private BigDecimal totalAmount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,31 @@
+package com.example.inventix.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * An item of an {@link ArchivedOrder}, referring to its order and product by id only.
+ */
+@Entity
+@Table(name = "order_item_archive", indexes = @Index(name = "ix_order_item_archive_order_id", columnList = "order_id"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ArchivedOrderItem {
+    @Id
+    private Long id;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    private int quantity;
+    private BigDecimal pricePerUnit;
+    private BigDecimal subtotal;
+}
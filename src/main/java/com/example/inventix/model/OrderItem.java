@@ -1,5 +1,6 @@
 package com.example.inventix.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,12 +15,14 @@ import java.math.BigDecimal;
 @Data
 public class OrderItem {
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
     @JoinColumn(name = "order_id")
     @ToString.Exclude
+    @JsonIgnore
     private Order order;
 
     @ManyToOne
@@ -4,5 +4,7 @@ public enum OrderStatus {
     PENDING,
     SHIPPED,
     DELIVERED,
-    CANCELLED
+    CANCELLED,
+    // Accepted by the async intake, stock not yet reserved; appended so persisted ordinals stay put
+    QUEUED
 }
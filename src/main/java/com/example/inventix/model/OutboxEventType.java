@@ -0,0 +1,7 @@
+package com.example.inventix.model;
+
+public enum OutboxEventType {
+    ORDER_CREATED,
+    ORDER_STATUS_CHANGED,
+    STOCK_CHANGED
+}
@@ -4,19 +4,24 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "ux_products_sku", columnList = "sku", unique = true),
+        @Index(name = "ix_products_catalog_version", columnList = "catalog_version")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     private String name;
@@ -31,6 +36,26 @@ public class Product {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Rows inserted outside JPA (imports, seeders) start at version 0
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // When positive, stock lives in that many StockBucket rows and quantity is their sum
+    @ColumnDefault("0")
+    @Column(name = "stock_buckets", nullable = false)
+    private int stockBuckets;
+
+    // Alert when available stock falls to this level; null uses inventix.alerts.default-reorder-point
+    @Column(name = "reorder_point")
+    private Integer reorderPoint;
+
+    // Catalog version of the last committed change, stamped by CatalogVersionTracker; null for
+    // rows written outside the application that have not changed since
+    @Column(name = "catalog_version")
+    private Long catalogVersion;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,46 @@
+package com.example.inventix.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Units sold and revenue for one product on one day, keyed by the day the order was placed.
+ * Maintained incrementally as order items change (see {@code SalesAggregator}), so analytics
+ * reads scale with days and products rather than with order items.
+ */
+@Entity
+@Table(name = "product_daily_sales", indexes = @Index(name = "ix_product_daily_sales_date", columnList = "sale_date"))
+@IdClass(ProductDailySales.Key.class)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductDailySales {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "sale_date")
+    private LocalDate saleDate;
+
+    @Column(nullable = false)
+    private long unitsSold;
+
+    @Column(nullable = false)
+    private BigDecimal revenue;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long productId;
+        private LocalDate saleDate;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.inventix.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a deleted product for catalog delta readers, which can no longer find its row. Kept
+ * for good: ids are never reused, so a tombstone never hides a live product.
+ */
+@Entity
+@Table(name = "product_tombstones", indexes = @Index(name = "ix_product_tombstones_catalog_version",
+        columnList = "catalog_version"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductTombstone {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "catalog_version", nullable = false)
+    private long catalogVersion;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
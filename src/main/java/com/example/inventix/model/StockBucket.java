@@ -0,0 +1,33 @@
+package com.example.inventix.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One slice of a hot product's stock. Reservations spread over the slices so concurrent
+ * checkouts of the same product lock different rows.
+ */
+@Entity
+@Table(name = "stock_buckets", indexes = @Index(name = "ux_stock_buckets_product_bucket",
+        columnList = "product_id, bucket", unique = true))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_buckets_seq")
+    @SequenceGenerator(name = "stock_buckets_seq", sequenceName = "stock_buckets_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private int bucket;
+
+    @Column(nullable = false)
+    private int quantity;
+}
@@ -0,0 +1,27 @@
+package com.example.inventix.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The last stock journal sequence whose delta has been applied to {@code products}. Written in
+ * the same transaction as the deltas, so replay after a crash never applies a delta twice.
+ */
+@Entity
+@Table(name = "stock_ledger_checkpoint")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockLedgerCheckpoint {
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    private Long lastSequence;
+}
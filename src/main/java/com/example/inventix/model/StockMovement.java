@@ -0,0 +1,51 @@
+package com.example.inventix.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only stock movement journal. A relative movement carries a
+ * {@code delta}; an {@link StockMovementReason#ADJUSTED ADJUSTED} one carries the new absolute
+ * {@code quantity} instead.
+ */
+@Entity
+@Table(name = "stock_movements", indexes = @Index(name = "ix_stock_movements_product_moved_at",
+        columnList = "product_id, moved_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movements_seq")
+    @SequenceGenerator(name = "stock_movements_seq", sequenceName = "stock_movements_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StockMovementReason reason;
+
+    private int delta;
+
+    private Integer quantity;
+
+    @Column(name = "order_item_id")
+    private Long orderItemId;
+
+    @Column(name = "moved_at", nullable = false)
+    private LocalDateTime movedAt;
+
+    /**
+     * The product's level after this movement, given the level before it.
+     */
+    public int applyTo(int level) {
+        return quantity != null ? quantity : level + delta;
+    }
+}
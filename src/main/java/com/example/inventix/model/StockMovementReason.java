@@ -0,0 +1,8 @@
+package com.example.inventix.model;
+
+public enum StockMovementReason {
+    // The level was set outright: product created, edited or deleted
+    ADJUSTED,
+    RESERVED,
+    RELEASED
+}
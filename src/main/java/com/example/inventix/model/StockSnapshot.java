@@ -0,0 +1,34 @@
+package com.example.inventix.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A product's stock level as of {@code asOf}, covering every journal movement up to and
+ * including that instant. Point-in-time lookups replay from the nearest snapshot.
+ */
+@Entity
+@Table(name = "stock_snapshots", indexes = @Index(name = "ix_stock_snapshots_product_as_of",
+        columnList = "product_id, as_of"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_snapshots_seq")
+    @SequenceGenerator(name = "stock_snapshots_seq", sequenceName = "stock_snapshots_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    private int quantity;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDateTime asOf;
+}
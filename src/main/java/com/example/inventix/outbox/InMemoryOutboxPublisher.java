@@ -0,0 +1,41 @@
+package com.example.inventix.outbox;
+
+import com.example.inventix.model.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Collects published events in memory, for tests and local runs without a broker. Can be told
+ * to fail, to exercise redelivery.
+ */
+@Component
+@ConditionalOnProperty(name = "inventix.outbox.publisher", havingValue = "memory")
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    private final List<OutboxEvent> published = new ArrayList<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) {
+        if (failing.get()) {
+            throw new IllegalStateException("Publisher unavailable");
+        }
+        published.addAll(batch);
+    }
+
+    public synchronized List<OutboxEvent> published() {
+        return new ArrayList<>(published);
+    }
+
+    public synchronized void clear() {
+        published.clear();
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing.set(failing);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.inventix.outbox;
+
+import com.example.inventix.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Delivers outbox events to downstream systems. Exactly one implementation is active, chosen
+ * by {@code inventix.outbox.publisher}. A batch is in id order, which is not commit order (see
+ * {@link OutboxRelay}); throwing leaves the whole batch pending, so it is delivered again (at
+ * least once) on the next relay pass.
+ */
+public interface OutboxPublisher {
+
+    void publish(List<OutboxEvent> batch);
+}
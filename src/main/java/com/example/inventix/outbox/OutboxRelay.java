@@ -0,0 +1,101 @@
+package com.example.inventix.outbox;
+
+import com.example.inventix.model.OutboxEvent;
+import com.example.inventix.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to the {@link OutboxPublisher} in id-ordered batches. A batch is deleted
+ * only after the publisher returns, so a crash or a publisher failure in between redelivers it:
+ * delivery is at least once and consumers should deduplicate on the event id.
+ * <p>
+ * Id order is not commit order, not even for one aggregate. Ids come from a pooled sequence
+ * and are taken before the transaction commits, so an event committed later can carry a lower
+ * id and be relayed after events that follow it; reservations through the stock ledger or
+ * buckets do not lock the product row, so they do not serialize a product's events either.
+ * Consumers must not rely on the order: stock deltas commute, and for absolute values (a stock
+ * level set outright, an order's status) they should read the current state rather than keep
+ * the value of the last event received.
+ * <p>
+ * Publishes {@code inventix.outbox.lag} (seconds since the oldest pending event was written)
+ * and {@code inventix.outbox.published}. Run the relay on one instance only.
+ */
+@Component
+@ConditionalOnProperty(name = "inventix.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher publisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter published;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxPublisher publisher,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${inventix.outbox.batch-size:100}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.publisher = publisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        Gauge.builder("inventix.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.published = Counter.builder("inventix.outbox.published").register(meterRegistry);
+    }
+
+    /**
+     * Publishes pending events until the outbox is empty or the publisher fails, and returns how
+     * many were published.
+     */
+    @Scheduled(fixedDelayString = "${inventix.outbox.poll-interval-ms:200}")
+    public synchronized int relay() {
+        int relayed = 0;
+        try {
+            List<OutboxEvent> batch;
+            do {
+                batch = outboxEventRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                try {
+                    publisher.publish(batch);
+                } catch (RuntimeException e) {
+                    log.warn("Could not publish {} outbox events starting at id {}; will retry",
+                            batch.size(), batch.get(0).getId(), e);
+                    break;
+                }
+                List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+                transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(ids));
+                published.increment(batch.size());
+                relayed += batch.size();
+            } while (batch.size() == batchSize);
+        } finally {
+            lagMillis.set(outboxEventRepository.findFirstByOrderByIdAsc()
+                    .map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toMillis())
+                    .orElse(0L));
+        }
+        return relayed;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.inventix.outbox;
+
+import com.example.inventix.event.OrderCreatedEvent;
+import com.example.inventix.event.OrderStatusChangedEvent;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OutboxEvent;
+import com.example.inventix.model.OutboxEventType;
+import com.example.inventix.repository.OutboxEventRepository;
+import com.example.inventix.stock.StockChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Turns order and stock events into outbox rows. The listeners are synchronous, so each row
+ * is inserted in the transaction that made the change and commits or rolls back with it;
+ * nothing is sent to downstream systems on the request path.
+ */
+@Component
+public class OutboxWriter {
+
+    static final String ORDER = "order";
+    static final String PRODUCT = "product";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    @Autowired
+    public OutboxWriter(OutboxEventRepository outboxEventRepository,
+                        ObjectMapper objectMapper,
+                        @Value("${inventix.outbox.enabled:true}") boolean enabled) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.order();
+        List<ItemPayload> items = order.getOrderItems() == null ? List.of() : order.getOrderItems().stream()
+                .map(item -> new ItemPayload(item.getProduct().getId(), item.getQuantity(),
+                        item.getPricePerUnit(), item.getSubtotal()))
+                .toList();
+        append(ORDER, order.getId(), OutboxEventType.ORDER_CREATED, new OrderCreatedPayload(order.getId(),
+                order.getStatus() != null ? order.getStatus().name() : null, order.getTotalAmount(), items));
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        append(ORDER, event.orderId(), OutboxEventType.ORDER_STATUS_CHANGED, new StatusChangedPayload(event.orderId(),
+                event.previousStatus() != null ? event.previousStatus().name() : null, event.status().name()));
+    }
+
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        append(PRODUCT, event.productId(), OutboxEventType.STOCK_CHANGED,
+                new StockChangedPayload(event.productId(), event.delta(), event.quantity()));
+    }
+
+    private void append(String aggregateType, Long aggregateId, OutboxEventType eventType, Object payload) {
+        if (!enabled) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " payload", e);
+        }
+        outboxEventRepository.save(new OutboxEvent(null, aggregateType, aggregateId, eventType, json, LocalDateTime.now()));
+    }
+
+    record OrderCreatedPayload(Long orderId, String status, BigDecimal totalAmount, List<ItemPayload> items) {
+    }
+
+    record ItemPayload(Long productId, int quantity, BigDecimal pricePerUnit, BigDecimal subtotal) {
+    }
+
+    record StatusChangedPayload(Long orderId, String previousStatus, String status) {
+    }
+
+    // quantity is set when the level was set outright, delta for relative movements
+    record StockChangedPayload(Long productId, int delta, Integer quantity) {
+    }
+}
@@ -1,8 +1,143 @@
 package com.example.inventix.repository;
 
+import com.example.inventix.analytics.StatusRevenue;
+import com.example.inventix.dto.OrderLineView;
+import com.example.inventix.dto.OrderView;
 import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+    /**
+     * Loads every order together with its items and their products in a single query.
+     */
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
+    @Query("SELECT o FROM Order o ORDER BY o.id")
+    List<Order> findAllWithItems();
+
+    /**
+     * Loads one order together with its items and their products in a single query.
+     */
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
+    Optional<Order> findWithItemsById(Long id);
+
+    /**
+     * The order's columns as an {@link OrderView} without lines; see {@link #findLineViews}.
+     */
+    @Query("SELECT new com.example.inventix.dto.OrderView(o.id, o.status, o.totalAmount, o.createdAt, o.updatedAt) " +
+            "FROM Order o WHERE o.id = :id")
+    Optional<OrderView> findViewById(@Param("id") Long id);
+
+    /**
+     * Keyset page of {@link OrderView}s without lines, in id order.
+     */
+    @Query("SELECT new com.example.inventix.dto.OrderView(o.id, o.status, o.totalAmount, o.createdAt, o.updatedAt) " +
+            "FROM Order o WHERE o.id > :lastId ORDER BY o.id")
+    List<OrderView> findViewsAfter(@Param("lastId") Long lastId, Limit limit);
+
+    /**
+     * Streams every order as an {@link OrderView} without lines, in id order. Must be consumed
+     * inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.inventix.dto.OrderView(o.id, o.status, o.totalAmount, o.createdAt, o.updatedAt) " +
+            "FROM Order o ORDER BY o.id")
+    Stream<OrderView> streamAllViews();
+
+    /**
+     * The lines of the given orders, with just the product columns a line shows, grouped by
+     * order and in item order.
+     */
+    @Query("SELECT new com.example.inventix.dto.OrderLineView(i.id, i.order.id, p.id, p.sku, p.name, i.quantity, " +
+            "i.pricePerUnit, i.subtotal) " +
+            "FROM OrderItem i LEFT JOIN i.product p WHERE i.order.id IN :orderIds ORDER BY i.order.id, i.id")
+    List<OrderLineView> findLineViews(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Reads only the status column, for polling callers that do not need the order itself.
+     */
+    @Query("SELECT o.status FROM Order o WHERE o.id = :id")
+    Optional<OrderStatus> findStatusById(@Param("id") Long id);
+
+    /**
+     * Keyset page: the orders whose id follows {@code lastId}, in id order. Items are not
+     * fetch-joined here so the limit stays in SQL; they are batch-fetched for the whole page
+     * instead (see {@code hibernate.default_batch_fetch_size}).
+     */
+    List<Order> findByIdGreaterThanOrderByIdAsc(Long lastId, Limit limit);
+
+    /**
+     * Streams every order in id order off an open JDBC cursor. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o FROM Order o ORDER BY o.id")
+    Stream<Order> streamAllOrderById();
+
+    /**
+     * Adds {@code delta} to one order's total in place, so concurrent item changes on the same
+     * order cannot lose each other's updates. The order's version is left alone: its items are
+     * excluded from the optimistic lock.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.totalAmount = COALESCE(o.totalAmount, 0) + :delta WHERE o.id = :id")
+    int addToTotal(@Param("id") Long id, @Param("delta") BigDecimal delta);
+
+    /**
+     * Recomputes one order's total from its items, for callers that replace the item list
+     * wholesale outside a transaction.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Order o SET o.totalAmount = " +
+            "COALESCE((SELECT SUM(i.subtotal) FROM OrderItem i WHERE i.order.id = o.id), 0) WHERE o.id = :id")
+    int recomputeTotal(@Param("id") Long id);
+
+    /**
+     * Recomputes every order's total from its items in one statement and returns how many
+     * orders had drifted. Orders whose total already matches are not rewritten.
+     */
+    @Modifying
+    @Query("UPDATE Order o SET o.totalAmount = " +
+            "COALESCE((SELECT SUM(i.subtotal) FROM OrderItem i WHERE i.order.id = o.id), 0) " +
+            "WHERE o.totalAmount IS NULL OR o.totalAmount <> " +
+            "COALESCE((SELECT SUM(i.subtotal) FROM OrderItem i WHERE i.order.id = o.id), 0)")
+    int recomputeTotals();
+
+    /**
+     * Revenue over every order not in {@code excluded}, read from the maintained totals.
+     */
+    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.status IS NULL OR o.status <> :excluded")
+    BigDecimal sumTotalAmountByStatusNot(@Param("excluded") OrderStatus excluded);
+
+    /**
+     * Order count and revenue per status, read from the maintained order totals so it scales
+     * with orders rather than with their items.
+     */
+    @Query("SELECT new com.example.inventix.analytics.StatusRevenue(o.status, COUNT(o), COALESCE(SUM(o.totalAmount), 0)) " +
+            "FROM Order o GROUP BY o.status")
+    List<StatusRevenue> sumRevenueByStatus();
+
+    /**
+     * Same as {@link #sumRevenueByStatus()} over the archived orders.
+     */
+    @Query("SELECT new com.example.inventix.analytics.StatusRevenue(o.status, COUNT(o), COALESCE(SUM(o.totalAmount), 0)) " +
+            "FROM ArchivedOrder o GROUP BY o.status")
+    List<StatusRevenue> sumArchivedRevenueByStatus();
 }
@@ -0,0 +1,19 @@
+package com.example.inventix.repository;
+
+import com.example.inventix.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The oldest pending events. There is no watermark: an event whose transaction commits
+     * after later ids were relayed is still picked up on the next pass.
+     */
+    List<OutboxEvent> findAllByOrderByIdAsc(Limit limit);
+
+    Optional<OutboxEvent> findFirstByOrderByIdAsc();
+}
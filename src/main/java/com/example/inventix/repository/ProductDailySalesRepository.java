@@ -0,0 +1,55 @@
+package com.example.inventix.repository;
+
+import com.example.inventix.analytics.DailySales;
+import com.example.inventix.analytics.ProductSales;
+import com.example.inventix.model.ProductDailySales;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ProductDailySalesRepository extends JpaRepository<ProductDailySales, ProductDailySales.Key> {
+
+    /**
+     * Adds to an existing day's row in place.
+     *
+     * @return 1 if the row exists, 0 if it still has to be inserted
+     */
+    @Modifying
+    @Query("UPDATE ProductDailySales s SET s.unitsSold = s.unitsSold + :units, s.revenue = s.revenue + :revenue " +
+            "WHERE s.productId = :productId AND s.saleDate = :saleDate")
+    int addSales(@Param("productId") Long productId, @Param("saleDate") LocalDate saleDate,
+                 @Param("units") long units, @Param("revenue") BigDecimal revenue);
+
+    List<ProductDailySales> findBySaleDateBetweenOrderBySaleDateAscProductIdAsc(LocalDate from, LocalDate to);
+
+    List<ProductDailySales> findByProductIdAndSaleDateBetweenOrderBySaleDateAsc(Long productId, LocalDate from, LocalDate to);
+
+    @Query("SELECT new com.example.inventix.analytics.ProductSales(s.productId, SUM(s.unitsSold), SUM(s.revenue)) " +
+            "FROM ProductDailySales s WHERE s.saleDate BETWEEN :from AND :to " +
+            "GROUP BY s.productId ORDER BY SUM(s.unitsSold) DESC, s.productId")
+    List<ProductSales> findTopProducts(@Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+
+    /**
+     * Recomputes the daily figures from live order items, for {@code rebuild}.
+     */
+    @Query("SELECT new com.example.inventix.analytics.DailySales(i.product.id, CAST(o.createdAt AS LocalDate), " +
+            "SUM(i.quantity), COALESCE(SUM(i.subtotal), 0)) " +
+            "FROM OrderItem i JOIN i.order o WHERE i.product IS NOT NULL " +
+            "GROUP BY i.product.id, CAST(o.createdAt AS LocalDate)")
+    List<DailySales> aggregateOrderItems();
+
+    /**
+     * Recomputes the daily figures from archived order items, for {@code rebuild}.
+     */
+    @Query("SELECT new com.example.inventix.analytics.DailySales(i.productId, CAST(o.createdAt AS LocalDate), " +
+            "SUM(i.quantity), COALESCE(SUM(i.subtotal), 0)) " +
+            "FROM ArchivedOrderItem i JOIN ArchivedOrder o ON o.id = i.orderId WHERE i.productId IS NOT NULL " +
+            "GROUP BY i.productId, CAST(o.createdAt AS LocalDate)")
+    List<DailySales> aggregateArchivedOrderItems();
+}
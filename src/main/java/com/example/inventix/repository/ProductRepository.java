@@ -1,8 +1,148 @@
 package com.example.inventix.repository;
 
+import com.example.inventix.analytics.LowStockProduct;
+import com.example.inventix.catalog.CatalogVersion;
+import com.example.inventix.dto.ProductView;
 import com.example.inventix.model.Product;
+import com.example.inventix.search.ProductSearchDocument;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    Optional<Product> findBySku(String sku);
+
+    List<Product> findAllBySkuIn(Collection<String> skus);
+
+    /**
+     * Keyset page: the products whose id follows {@code lastId}, in id order.
+     */
+    List<Product> findByIdGreaterThanOrderByIdAsc(Long lastId, Limit limit);
+
+    /**
+     * Keyset page of {@link ProductView}s, in id order, without the quantity.
+     */
+    @Query("SELECT new com.example.inventix.dto.ProductView(p.id, p.name, p.sku, p.description, p.price, " +
+            "p.updatedAt, p.catalogVersion) " +
+            "FROM Product p WHERE p.id > :lastId ORDER BY p.id")
+    List<ProductView> findViewsAfter(@Param("lastId") Long lastId, Limit limit);
+
+    @Query("SELECT new com.example.inventix.dto.ProductView(p.id, p.name, p.sku, p.description, p.price, " +
+            "p.updatedAt, p.catalogVersion) " +
+            "FROM Product p WHERE p.id = :id")
+    Optional<ProductView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.inventix.dto.ProductView(p.id, p.name, p.sku, p.description, p.price, " +
+            "p.updatedAt, p.catalogVersion) " +
+            "FROM Product p WHERE p.id IN :ids")
+    List<ProductView> findViewsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Products changed after the position {@code (since, afterId)} up to catalog version
+     * {@code upTo}, in (version, id) order. {@code afterId} continues a page that ended inside
+     * version {@code since}; pass {@link Long#MAX_VALUE} to start after the whole version.
+     */
+    @Query("SELECT new com.example.inventix.dto.ProductView(p.id, p.name, p.sku, p.description, p.price, " +
+            "p.updatedAt, p.catalogVersion) " +
+            "FROM Product p WHERE (p.catalogVersion > :since OR (p.catalogVersion = :since AND p.id > :afterId)) " +
+            "AND p.catalogVersion <= :upTo ORDER BY p.catalogVersion, p.id")
+    List<ProductView> findViewsChangedBetween(@Param("since") long since, @Param("afterId") long afterId,
+                                              @Param("upTo") long upTo, Limit limit);
+
+    /**
+     * Just the validators of one product, for answering a conditional GET without loading it.
+     */
+    @Query("SELECT new com.example.inventix.catalog.CatalogVersion(p.catalogVersion, COALESCE(p.updatedAt, p.createdAt)) " +
+            "FROM Product p WHERE p.id = :id")
+    Optional<CatalogVersion> findCatalogVersionById(@Param("id") Long id);
+
+    @Query("SELECT MAX(p.catalogVersion) FROM Product p")
+    Long findMaxCatalogVersion();
+
+    /**
+     * Stamps the products changed by the committing transaction; see {@code CatalogVersionTracker}.
+     * Leaves the optimistic lock version alone, so stamping never fails a concurrent edit.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.catalogVersion = :catalogVersion, p.updatedAt = :updatedAt WHERE p.id IN :ids")
+    int stampCatalogVersion(@Param("ids") Collection<Long> ids, @Param("catalogVersion") long catalogVersion,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Streams every product as a {@link ProductView} in id order, counting stock split across
+     * buckets. Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.inventix.dto.ProductView(p.id, p.name, p.sku, p.description, p.price, " +
+            "CAST(p.quantity + COALESCE((SELECT SUM(b.quantity) FROM StockBucket b WHERE b.productId = p.id), 0) AS Integer), " +
+            "p.updatedAt, p.catalogVersion) " +
+            "FROM Product p ORDER BY p.id")
+    Stream<ProductView> streamAllViews();
+
+    /**
+     * Streams every product in id order off an open JDBC cursor. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllOrderById();
+
+    /**
+     * Atomically takes {@code quantity} units from the product's stock in a single
+     * conditional UPDATE. The row's version is bumped, so a concurrent read-modify-write of the
+     * same product fails its optimistic check instead of overwriting the reservation.
+     *
+     * @return 1 if the stock was reserved, 0 if the product does not exist or has
+     * fewer than {@code quantity} units on hand
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE VERSIONED Product p SET p.quantity = p.quantity - :quantity " +
+            "WHERE p.id = :id AND p.quantity >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Atomically returns {@code quantity} units to the product's stock.
+     *
+     * @return 1 if the product exists, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE VERSIONED Product p SET p.quantity = p.quantity + :quantity WHERE p.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Products with at most {@code threshold} units on hand, counting stock split across
+     * buckets, lowest first.
+     */
+    @Query("SELECT new com.example.inventix.analytics.LowStockProduct(p.id, p.sku, p.name, " +
+            "p.quantity + COALESCE((SELECT SUM(b.quantity) FROM StockBucket b WHERE b.productId = p.id), 0)) " +
+            "FROM Product p " +
+            "WHERE p.quantity + COALESCE((SELECT SUM(b.quantity) FROM StockBucket b WHERE b.productId = p.id), 0) <= :threshold " +
+            "ORDER BY p.quantity + COALESCE((SELECT SUM(b.quantity) FROM StockBucket b WHERE b.productId = p.id), 0), p.id")
+    List<LowStockProduct> findLowStock(@Param("threshold") long threshold);
+
+    @Query("SELECT MIN(p.id) FROM Product p")
+    Long findMinId();
+
+    @Query("SELECT MAX(p.id) FROM Product p")
+    Long findMaxId();
+
+    /**
+     * The searchable text of the products with ids in {@code [fromId, toId]}, without loading
+     * the entities.
+     */
+    @Query("SELECT new com.example.inventix.search.ProductSearchDocument(p.id, p.name, p.sku, p.description) " +
+            "FROM Product p WHERE p.id BETWEEN :fromId AND :toId")
+    List<ProductSearchDocument> findSearchDocuments(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
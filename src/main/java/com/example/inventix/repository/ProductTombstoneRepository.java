@@ -0,0 +1,18 @@
+package com.example.inventix.repository;
+
+import com.example.inventix.model.ProductTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ProductTombstoneRepository extends JpaRepository<ProductTombstone, Long> {
+
+    @Query("SELECT MAX(t.catalogVersion) FROM ProductTombstone t")
+    Long findMaxCatalogVersion();
+
+    @Query("SELECT t.productId FROM ProductTombstone t " +
+            "WHERE t.catalogVersion > :since AND t.catalogVersion <= :upTo ORDER BY t.catalogVersion, t.productId")
+    List<Long> findProductIdsDeletedBetween(@Param("since") long since, @Param("upTo") long upTo);
+}
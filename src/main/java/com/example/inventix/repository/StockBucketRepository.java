@@ -0,0 +1,42 @@
+package com.example.inventix.repository;
+
+import com.example.inventix.model.StockBucket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface StockBucketRepository extends JpaRepository<StockBucket, Long> {
+
+    /**
+     * Takes {@code quantity} units from one bucket if it holds that many.
+     *
+     * @return 1 if the units were taken, 0 otherwise
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockBucket b SET b.quantity = b.quantity - :quantity " +
+            "WHERE b.productId = :productId AND b.bucket = :bucket AND b.quantity >= :quantity")
+    int take(@Param("productId") Long productId, @Param("bucket") int bucket, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE StockBucket b SET b.quantity = b.quantity + :quantity " +
+            "WHERE b.productId = :productId AND b.bucket = :bucket")
+    int give(@Param("productId") Long productId, @Param("bucket") int bucket, @Param("quantity") int quantity);
+
+    /**
+     * Locks every bucket of the product, always in bucket order so two callers cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockBucket> findByProductIdOrderByBucketAsc(Long productId);
+
+    @Query("SELECT COALESCE(SUM(b.quantity), 0) FROM StockBucket b WHERE b.productId = :productId")
+    long sumQuantity(@Param("productId") Long productId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StockBucket b WHERE b.productId = :productId")
+    void deleteByProductId(@Param("productId") Long productId);
+}
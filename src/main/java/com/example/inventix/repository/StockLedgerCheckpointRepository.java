@@ -0,0 +1,8 @@
+package com.example.inventix.repository;
+
+import com.example.inventix.model.StockLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StockLedgerCheckpointRepository extends JpaRepository<StockLedgerCheckpoint, Integer> {
+
+}
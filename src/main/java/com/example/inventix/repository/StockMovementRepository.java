@@ -0,0 +1,29 @@
+package com.example.inventix.repository;
+
+import com.example.inventix.model.StockMovement;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    /**
+     * The product's movements in {@code (after, until]}, in replay order.
+     */
+    @Query("SELECT m FROM StockMovement m WHERE m.productId = :productId AND m.movedAt > :after " +
+            "AND m.movedAt <= :until ORDER BY m.movedAt, m.id")
+    List<StockMovement> findToReplay(Long productId, LocalDateTime after, LocalDateTime until);
+
+    /**
+     * The product's movements up to {@code until}, for a product without a snapshot yet.
+     */
+    @Query("SELECT m FROM StockMovement m WHERE m.productId = :productId AND m.movedAt <= :until " +
+            "ORDER BY m.movedAt, m.id")
+    List<StockMovement> findToReplay(Long productId, LocalDateTime until);
+
+    List<StockMovement> findByProductIdAndMovedAtBetweenOrderByMovedAtAscIdAsc(Long productId, LocalDateTime from,
+                                                                               LocalDateTime to, Limit limit);
+}
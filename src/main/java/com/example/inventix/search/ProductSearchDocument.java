@@ -0,0 +1,7 @@
+package com.example.inventix.search;
+
+/**
+ * The searchable text of one product, as read for an index rebuild.
+ */
+public record ProductSearchDocument(Long id, String name, String sku, String description) {
+}
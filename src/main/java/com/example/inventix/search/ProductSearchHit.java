@@ -0,0 +1,7 @@
+package com.example.inventix.search;
+
+/**
+ * A product matching a search query; a higher {@code score} is more relevant.
+ */
+public record ProductSearchHit(Long productId, double score) {
+}
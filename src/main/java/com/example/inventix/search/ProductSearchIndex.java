@@ -0,0 +1,429 @@
+package com.example.inventix.search;
+
+import com.example.inventix.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over product name, SKU and description.
+ * <p>
+ * Text is split into lower-cased runs of letters and digits. Each term maps to the products
+ * containing it, with a weight summed over its occurrences: 4 in the SKU, 2 in the name, 1 in
+ * the description. The terms are kept sorted, so a query token also matches the terms it is a
+ * prefix of, up to {@code max-prefix-terms} of them. A product must match every token. Per
+ * token it scores the best of its matched terms: weight times idf, scaled down by how much of
+ * the term the token covers.
+ * <p>
+ * A search walks the products of its rarest token heaviest first, probes the other tokens for
+ * each, and stops once no product left could outrank the hits it keeps. Common words therefore
+ * stop after a handful of products instead of scoring every match. A query is also cut off after
+ * {@code max-candidates} products of its rarest token, so a broad query may be ranked among
+ * those only; equally scored hits come in no particular order.
+ * <p>
+ * Committed {@link ProductChangedEvent}s keep the index current; {@link ProductSearchIndexLoader}
+ * fills it on startup. Searches share a read lock and changes take the write lock.
+ */
+@Component
+public class ProductSearchIndex {
+
+    static final int SKU_WEIGHT = 4;
+    static final int NAME_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final Comparator<ProductSearchHit> RANKING = Comparator.comparingDouble(ProductSearchHit::score)
+            .reversed()
+            .thenComparing(ProductSearchHit::productId);
+
+    private final int maxPrefixTerms;
+    private final int maxCandidates;
+
+    private final NavigableMap<String, Posting> postings = new TreeMap<>();
+    // Each product's terms, to take it out of their postings when it changes
+    private final Map<Long, String[]> documents = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // While a rebuild runs, the products changed since it started; the rebuild's older copies of them are skipped
+    private Set<Long> changedDuringRebuild;
+
+    @Autowired
+    public ProductSearchIndex(@Value("${inventix.search.max-prefix-terms:64}") int maxPrefixTerms,
+                              @Value("${inventix.search.max-candidates:1000}") int maxCandidates) {
+        this.maxPrefixTerms = maxPrefixTerms;
+        this.maxCandidates = maxCandidates;
+    }
+
+    /**
+     * Runs after the publishing transaction commits, so rolled-back changes never reach the
+     * index, or straight away when the change was made outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.deleted()) {
+            remove(event.productId());
+        } else {
+            index(new ProductSearchDocument(event.productId(), event.name(), event.sku(), event.description()));
+        }
+    }
+
+    public void index(ProductSearchDocument document) {
+        Map<String, Integer> terms = terms(document);
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(document.id());
+            }
+            put(document.id(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(productId);
+            }
+            unlink(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empties the index for a rebuild. Changes indexed from here on win over the documents the
+     * rebuild {@link #load loads}, which may have been read before them.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a batch of rebuilt documents. Tokenizing happens before the write lock is taken, so
+     * loaders can run in parallel and searches only wait for the inserts.
+     */
+    public void load(Collection<ProductSearchDocument> batch) {
+        Map<Long, Map<String, Integer>> tokenized = new HashMap<>(batch.size() * 2);
+        batch.forEach(document -> tokenized.put(document.id(), terms(document)));
+        lock.writeLock().lock();
+        try {
+            tokenized.forEach((id, terms) -> {
+                if (changedDuringRebuild == null || !changedDuringRebuild.contains(id)) {
+                    put(id, terms);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void endRebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The at most {@code limit} best matches for {@code query}, most relevant first. A query
+     * without any letters or digits matches nothing.
+     */
+    public List<ProductSearchHit> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(terms(query, 1).keySet());
+        if (tokens.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<Expansion> expansions = new ArrayList<>(tokens.size());
+            for (String token : tokens) {
+                Expansion expansion = expand(token);
+                if (expansion.size == 0) {
+                    return List.of();
+                }
+                expansions.add(expansion);
+            }
+            expansions.sort(Comparator.comparingLong(expansion -> expansion.size));
+            Expansion rarest = expansions.get(0);
+            List<Expansion> others = expansions.subList(1, expansions.size());
+            double othersMax = others.stream().mapToDouble(Expansion::maxScore).sum();
+
+            // Walk the rarest token's products heaviest first, merged across its terms
+            PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparingDouble(Cursor::value).reversed());
+            for (int i = 0; i < rarest.postings.size(); i++) {
+                Impacts impacts = rarest.postings.get(i).impacts();
+                cursors.add(new Cursor(impacts, rarest.factors[i]));
+            }
+            // The worst kept hit sits at the head, ready to be displaced
+            PriorityQueue<ProductSearchHit> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            Set<Long> seen = new HashSet<>();
+            while (!cursors.isEmpty() && seen.size() < maxCandidates) {
+                Cursor cursor = cursors.poll();
+                double value = cursor.value();
+                if (best.size() == limit && value + othersMax <= best.peek().score()) {
+                    break; // No product left can outrank the ones kept
+                }
+                Long id = cursor.id();
+                if (cursor.advance()) {
+                    cursors.add(cursor);
+                }
+                // A product under several of the token's terms is first met under its best one
+                if (!seen.add(id)) {
+                    continue;
+                }
+                double score = value;
+                String[] terms = documents.get(id);
+                for (Expansion expansion : others) {
+                    double tokenScore = expansion.score(id, terms);
+                    if (tokenScore == 0) {
+                        score = 0;
+                        break;
+                    }
+                    score += tokenScore;
+                }
+                if (score > 0) {
+                    best.add(new ProductSearchHit(id, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+            List<ProductSearchHit> hits = new ArrayList<>(best);
+            hits.sort(RANKING);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Callers hold the write lock
+    private void put(Long id, Map<String, Integer> terms) {
+        unlink(id);
+        terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new Posting()).put(id, weight));
+        documents.put(id, terms.keySet().toArray(String[]::new));
+    }
+
+    // Callers hold the write lock
+    private void unlink(Long id) {
+        String[] previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous) {
+            Posting posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.weights.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private Expansion expand(String token) {
+        Map<String, Integer> positions = new HashMap<>();
+        List<Posting> matched = new ArrayList<>();
+        List<Double> factors = new ArrayList<>();
+        double documentCount = Math.max(1, documents.size());
+        for (Map.Entry<String, Posting> entry : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            if (matched.size() == maxPrefixTerms) {
+                break;
+            }
+            Posting posting = entry.getValue();
+            double idf = Math.log(1 + documentCount / posting.weights.size());
+            double coverage = (double) token.length() / entry.getKey().length();
+            positions.put(entry.getKey(), matched.size());
+            matched.add(posting);
+            factors.add(idf * coverage);
+        }
+        return new Expansion(token, positions, matched, factors.stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    private static Map<String, Integer> terms(ProductSearchDocument document) {
+        Map<String, Integer> terms = new HashMap<>();
+        terms(document.sku(), SKU_WEIGHT).forEach((term, weight) -> terms.merge(term, weight, Integer::sum));
+        terms(document.name(), NAME_WEIGHT).forEach((term, weight) -> terms.merge(term, weight, Integer::sum));
+        terms(document.description(), DESCRIPTION_WEIGHT).forEach((term, weight) -> terms.merge(term, weight, Integer::sum));
+        return terms;
+    }
+
+    /**
+     * Splits {@code text} into lower-cased runs of letters and digits, in order of first
+     * appearance, each weighted {@code weight} per occurrence.
+     */
+    static Map<String, Integer> terms(String text, int weight) {
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inToken = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inToken && start < 0) {
+                start = i;
+            } else if (!inToken && start >= 0) {
+                terms.merge(text.substring(start, i).toLowerCase(Locale.ROOT), weight, Integer::sum);
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The products containing one term, with their weights. {@code maxWeight} only grows
+     * between changes, so it always bounds the weights from above.
+     */
+    private static final class Posting {
+
+        private final Map<Long, Integer> weights = new HashMap<>();
+        private int maxWeight;
+        // The weights heaviest first, built by the first search after a change
+        private volatile Impacts impacts;
+
+        void put(Long id, int weight) {
+            weights.put(id, weight);
+            maxWeight = Math.max(maxWeight, weight);
+            impacts = null;
+        }
+
+        void remove(Long id) {
+            weights.remove(id);
+            impacts = null;
+        }
+
+        /**
+         * Counting sort on the weight. Searches may build it concurrently; they all build the same.
+         */
+        Impacts impacts() {
+            Impacts built = impacts;
+            if (built != null) {
+                return built;
+            }
+            int[] offsets = new int[maxWeight + 1];
+            weights.values().forEach(weight -> offsets[weight]++);
+            for (int weight = maxWeight, offset = 0; weight >= 0; weight--) {
+                int count = offsets[weight];
+                offsets[weight] = offset;
+                offset += count;
+            }
+            long[] ids = new long[weights.size()];
+            int[] sortedWeights = new int[ids.length];
+            weights.forEach((id, weight) -> {
+                int at = offsets[weight]++;
+                ids[at] = id;
+                sortedWeights[at] = weight;
+            });
+            built = new Impacts(ids, sortedWeights);
+            impacts = built;
+            return built;
+        }
+    }
+
+    private record Impacts(long[] ids, int[] weights) {
+    }
+
+    /**
+     * Walks one term's products heaviest first.
+     */
+    private static final class Cursor {
+
+        private final Impacts impacts;
+        private final double factor;
+        private int position;
+
+        Cursor(Impacts impacts, double factor) {
+            this.impacts = impacts;
+            this.factor = factor;
+        }
+
+        double value() {
+            return impacts.weights()[position] * factor;
+        }
+
+        Long id() {
+            return impacts.ids()[position];
+        }
+
+        boolean advance() {
+            return ++position < impacts.ids().length;
+        }
+    }
+
+    /**
+     * The indexed terms one query token matches, each with its score per unit of weight. A
+     * product scores the best of the terms it contains.
+     */
+    private static final class Expansion {
+
+        private final String token;
+        private final Map<String, Integer> positions;
+        private final List<Posting> postings;
+        private final double[] factors;
+        private final long size;
+
+        Expansion(String token, Map<String, Integer> positions, List<Posting> postings, double[] factors) {
+            this.token = token;
+            this.positions = positions;
+            this.postings = postings;
+            this.factors = factors;
+            this.size = postings.stream().mapToLong(posting -> posting.weights.size()).sum();
+        }
+
+        /**
+         * The product's score for this token. A product has few terms and a short token many
+         * matching ones, so the product's own {@code terms} are checked rather than every posting.
+         */
+        double score(Long id, String[] terms) {
+            double score = 0;
+            for (String term : terms) {
+                Integer position = term.startsWith(token) ? positions.get(term) : null;
+                if (position != null) {
+                    score = Math.max(score, postings.get(position).weights.get(id) * factors[position]);
+                }
+            }
+            return score;
+        }
+
+        double maxScore() {
+            double max = 0;
+            for (int i = 0; i < factors.length; i++) {
+                max = Math.max(max, postings.get(i).maxWeight * factors[i]);
+            }
+            return max;
+        }
+    }
+}
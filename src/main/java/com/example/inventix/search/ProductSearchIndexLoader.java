@@ -0,0 +1,75 @@
+package com.example.inventix.search;
+
+import com.example.inventix.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fills the {@link ProductSearchIndex} from the products table once the application is up.
+ * The id range is cut into slices of {@code batch-size} ids that {@code threads} workers read
+ * and tokenize in parallel. Searches served before the rebuild finishes may miss products.
+ */
+@Component
+public class ProductSearchIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndexLoader.class);
+
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final int threads;
+    private final int batchSize;
+
+    @Autowired
+    public ProductSearchIndexLoader(ProductRepository productRepository,
+                                    ProductSearchIndex searchIndex,
+                                    @Value("${inventix.search.rebuild-threads:4}") int threads,
+                                    @Value("${inventix.search.rebuild-batch-size:10000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.searchIndex = searchIndex;
+        this.threads = threads;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        searchIndex.beginRebuild();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            Long minId = productRepository.findMinId();
+            Long maxId = productRepository.findMaxId();
+            if (minId == null) {
+                return;
+            }
+            List<Future<?>> slices = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += batchSize) {
+                long to = Math.min(maxId, from + batchSize - 1);
+                long fromId = from;
+                slices.add(executor.submit(() -> searchIndex.load(productRepository.findSearchDocuments(fromId, to))));
+            }
+            for (Future<?> slice : slices) {
+                slice.get();
+            }
+            log.info("Indexed {} products for search in {} ms", searchIndex.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (ExecutionException e) {
+            log.warn("Search index rebuild failed; searches will miss products until they change", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+            searchIndex.endRebuild();
+        }
+    }
+}
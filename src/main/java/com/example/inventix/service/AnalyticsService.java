@@ -0,0 +1,22 @@
+package com.example.inventix.service;
+
+import com.example.inventix.analytics.LowStockProduct;
+import com.example.inventix.analytics.ProductSales;
+import com.example.inventix.analytics.StatusRevenue;
+import com.example.inventix.model.ProductDailySales;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AnalyticsService {
+
+    List<ProductDailySales> getDailySales(LocalDate from, LocalDate to, Long productId);
+
+    List<ProductSales> getTopProducts(LocalDate from, LocalDate to, int limit);
+
+    List<StatusRevenue> getRevenueByStatus();
+
+    List<LowStockProduct> getLowStockProducts(int threshold);
+
+    int rebuildSales();
+}
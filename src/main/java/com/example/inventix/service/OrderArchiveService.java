@@ -0,0 +1,10 @@
+package com.example.inventix.service;
+
+import com.example.inventix.batch.OrderArchiveResult;
+
+import java.time.LocalDateTime;
+
+public interface OrderArchiveService {
+
+    OrderArchiveResult archiveOrders(LocalDateTime cutoff, int threads);
+}
@@ -0,0 +1,13 @@
+package com.example.inventix.service;
+
+import com.example.inventix.intake.OrderTicket;
+import com.example.inventix.model.Order;
+
+import java.util.UUID;
+
+public interface OrderIntakeService {
+
+    OrderTicket submit(Order order);
+
+    OrderTicket getTicket(UUID trackingId);
+}
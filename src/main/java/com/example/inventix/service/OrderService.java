@@ -1,10 +1,13 @@
 package com.example.inventix.service;
 
+import com.example.inventix.dto.OrderView;
 import com.example.inventix.model.Order;
 import com.example.inventix.model.OrderItem;
 import com.example.inventix.model.OrderStatus;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface OrderService {
 
@@ -12,6 +15,8 @@ public interface OrderService {
 
     Order createOrderWithItems(Order order, List<OrderItem> orderItems);
 
+    Order createBulkOrder(Order order, List<OrderItem> orderItems);
+
     Order getOrderById(Long id);
 
     Order updateOrder(Long id, Order updatedOrder);
@@ -22,5 +27,19 @@ public interface OrderService {
 
     List<Order> getAllOrders();
 
+    List<Order> getOrdersAfter(Long lastId, int limit);
+
+    void streamAllOrders(Consumer<Order> consumer);
+
+    OrderView getOrderView(Long id);
+
+    List<OrderView> getOrderViewsAfter(Long lastId, int limit);
+
+    void streamAllOrderViews(Consumer<OrderView> consumer);
+
     Order updateOrderStatus(Long id, OrderStatus status);
+
+    BigDecimal getTotalRevenue();
+
+    int repairTotals();
 }
@@ -0,0 +1,10 @@
+package com.example.inventix.service;
+
+import com.example.inventix.batch.ProductImportResult;
+
+import java.time.LocalDate;
+
+public interface ProductImportService {
+
+    ProductImportResult importProducts(String inputFile, LocalDate importDate);
+}
@@ -1,8 +1,18 @@
 package com.example.inventix.service;
 
+import com.example.inventix.catalog.CatalogDelta;
+import com.example.inventix.catalog.CatalogVersion;
+import com.example.inventix.dto.ProductView;
 import com.example.inventix.model.Product;
+import com.example.inventix.model.StockMovement;
+import com.example.inventix.stock.StockHistoryPoint;
+import com.example.inventix.stock.StockLevel;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ProductService {
     Product createProduct(Product product);
@@ -11,7 +21,45 @@ public interface ProductService {
 
     Product getProductById(Long id);
 
+    Product getProductBySku(String sku);
+
+    List<Product> getProductsBySkus(Collection<String> skus);
+
     List<Product> getAllProducts();
 
+    List<Product> getProductsAfter(Long lastId, int limit);
+
+    void streamAllProducts(Consumer<Product> consumer);
+
+    List<ProductView> getProductViewsAfter(Long lastId, int limit);
+
+    void streamAllProductViews(Consumer<ProductView> consumer);
+
+    ProductView getProductView(Long id);
+
+    CatalogVersion getCatalogVersion();
+
+    Optional<CatalogVersion> getProductCatalogVersion(Long id);
+
+    CatalogDelta getCatalogChanges(long since, long afterId, int limit);
+
+    List<Product> searchProducts(String query, int limit);
+
+    List<Product> getProductsByIds(Collection<Long> ids);
+
     void deleteProduct(Long id);
-}
\ No newline at end of file
+
+    void reserveStock(Long id, int quantity);
+
+    boolean tryReserveStock(Long id, int quantity);
+
+    void releaseStock(Long id, int quantity);
+
+    Product setStockBuckets(Long id, int buckets);
+
+    StockLevel getStockLevel(Long id);
+
+    Optional<StockHistoryPoint> getStockLevelAt(Long id, LocalDateTime at);
+
+    List<StockMovement> getStockMovements(Long id, LocalDateTime from, LocalDateTime to, int limit);
+}
@@ -0,0 +1,89 @@
+package com.example.inventix.service.impl;
+
+import com.example.inventix.analytics.LowStockProduct;
+import com.example.inventix.analytics.ProductSales;
+import com.example.inventix.analytics.SalesAggregator;
+import com.example.inventix.analytics.StatusRevenue;
+import com.example.inventix.model.OrderStatus;
+import com.example.inventix.model.ProductDailySales;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductDailySalesRepository;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private final ProductDailySalesRepository dailySalesRepository;
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final SalesAggregator salesAggregator;
+
+    @Autowired
+    public AnalyticsServiceImpl(ProductDailySalesRepository dailySalesRepository,
+                                OrderRepository orderRepository,
+                                ProductRepository productRepository,
+                                SalesAggregator salesAggregator) {
+        this.dailySalesRepository = dailySalesRepository;
+        this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.salesAggregator = salesAggregator;
+    }
+
+    /**
+     * Units sold and revenue per product per day, from the pre-aggregated daily rows. Figures
+     * lag order changes by at most one aggregator flush.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDailySales> getDailySales(LocalDate from, LocalDate to, Long productId) {
+        if (productId != null) {
+            return dailySalesRepository.findByProductIdAndSaleDateBetweenOrderBySaleDateAsc(productId, from, to);
+        }
+        return dailySalesRepository.findBySaleDateBetweenOrderBySaleDateAscProductIdAsc(from, to);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductSales> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        return dailySalesRepository.findTopProducts(from, to, Limit.of(limit));
+    }
+
+    /**
+     * Order count and revenue per status, over live and archived orders.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<StatusRevenue> getRevenueByStatus() {
+        // Orders created without a status are grouped under a null key
+        Map<OrderStatus, StatusRevenue> byStatus = new LinkedHashMap<>();
+        List<StatusRevenue> rows = new ArrayList<>(orderRepository.sumRevenueByStatus());
+        rows.addAll(orderRepository.sumArchivedRevenueByStatus());
+        for (StatusRevenue row : rows) {
+            byStatus.merge(row.status(), row, (a, b) ->
+                    new StatusRevenue(a.status(), a.orders() + b.orders(), a.revenue().add(b.revenue())));
+        }
+        return new ArrayList<>(byStatus.values());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<LowStockProduct> getLowStockProducts(int threshold) {
+        return productRepository.findLowStock(threshold);
+    }
+
+    @Override
+    public int rebuildSales() {
+        return salesAggregator.rebuild();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.inventix.service.impl;
+
+import com.example.inventix.batch.OrderArchiveJobConfig;
+import com.example.inventix.batch.OrderArchiveResult;
+import com.example.inventix.exception.OrderArchiveException;
+import com.example.inventix.service.OrderArchiveService;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+@Service
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private final JobLauncher jobLauncher;
+    private final Job orderArchiveJob;
+    private final int maxThreads;
+
+    @Autowired
+    public OrderArchiveServiceImpl(JobLauncher jobLauncher,
+                                   @Qualifier("orderArchiveJob") Job orderArchiveJob,
+                                   @Value("${inventix.archive.max-threads:16}") int maxThreads) {
+        this.jobLauncher = jobLauncher;
+        this.orderArchiveJob = orderArchiveJob;
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * Archives terminal orders created before {@code cutoff} using {@code threads} partitions,
+     * between 1 and {@code inventix.archive.max-threads}; each partition runs on its own thread.
+     * Launching the same cutoff after a failure restarts only the partitions that did not complete.
+     */
+    @Override
+    public OrderArchiveResult archiveOrders(LocalDateTime cutoff, int threads) {
+        if (threads < 1 || threads > maxThreads) {
+            throw new IllegalArgumentException("Archive threads must be between 1 and " + maxThreads + ": " + threads);
+        }
+        JobParameters parameters = new JobParametersBuilder()
+                .addLocalDateTime(OrderArchiveJobConfig.CUTOFF_PARAMETER, cutoff)
+                .addLong(OrderArchiveJobConfig.THREADS_PARAMETER, (long) threads, false)
+                .toJobParameters();
+        try {
+            JobExecution execution = jobLauncher.run(orderArchiveJob, parameters);
+            return OrderArchiveResult.from(execution);
+        } catch (JobExecutionException e) {
+            throw new OrderArchiveException("Could not run order archive for cutoff " + cutoff, e);
+        }
+    }
+}
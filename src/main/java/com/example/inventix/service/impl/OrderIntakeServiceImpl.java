@@ -0,0 +1,159 @@
+package com.example.inventix.service.impl;
+
+import com.example.inventix.exception.OrderIntakeFullException;
+import com.example.inventix.exception.OrderNotFoundException;
+import com.example.inventix.intake.OrderBatchProcessor;
+import com.example.inventix.intake.OrderTicket;
+import com.example.inventix.intake.QueuedOrder;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.service.OrderIntakeService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts orders into a bounded in-process queue and places them asynchronously in
+ * micro-batches (see {@link OrderBatchProcessor}). A full queue is rejected rather than
+ * buffered so callers see backpressure immediately. Queued orders live only in memory:
+ * they are drained on shutdown but lost if the process dies.
+ */
+@Service
+@ConditionalOnProperty(name = "inventix.orders.intake.enabled", havingValue = "true")
+public class OrderIntakeServiceImpl implements OrderIntakeService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntakeServiceImpl.class);
+
+    private final OrderBatchProcessor batchProcessor;
+    private final OrderRepository orderRepository;
+    private final BlockingQueue<QueuedOrder> queue;
+    private final Cache<UUID, OrderTicket> tickets;
+    private final int batchSize;
+    private final int consumerCount;
+    private final List<Thread> consumers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Autowired
+    public OrderIntakeServiceImpl(OrderBatchProcessor batchProcessor,
+                                  OrderRepository orderRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${inventix.orders.intake.queue-capacity:10000}") int queueCapacity,
+                                  @Value("${inventix.orders.intake.batch-size:50}") int batchSize,
+                                  @Value("${inventix.orders.intake.consumers:2}") int consumerCount,
+                                  @Value("${inventix.orders.intake.ticket-ttl:1h}") Duration ticketTtl) {
+        this.batchProcessor = batchProcessor;
+        this.orderRepository = orderRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.tickets = Caffeine.newBuilder().expireAfterWrite(ticketTtl).build();
+        this.batchSize = batchSize;
+        this.consumerCount = consumerCount;
+        Gauge.builder("inventix.orders.intake.queued", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < consumerCount; i++) {
+            consumers.add(Thread.ofPlatform().name("order-intake-", i).start(this::consume));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // Consumers keep draining until the queue is empty, then exit
+        running = false;
+        for (Thread consumer : consumers) {
+            consumer.join();
+        }
+    }
+
+    @Override
+    public OrderTicket submit(Order order) {
+        List<OrderItem> items = order.getOrderItems();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Order has no items");
+        }
+        for (OrderItem item : items) {
+            if (item.getProduct() == null || item.getProduct().getId() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Every item needs a product id and a positive quantity");
+            }
+            item.setId(null);
+        }
+        order.setId(null);
+        order.setVersion(null);
+
+        OrderTicket ticket = OrderTicket.queued(UUID.randomUUID());
+        tickets.put(ticket.trackingId(), ticket);
+        if (!running || !queue.offer(new QueuedOrder(ticket, order))) {
+            tickets.invalidate(ticket.trackingId());
+            throw new OrderIntakeFullException("Order intake queue is full");
+        }
+        return ticket;
+    }
+
+    /**
+     * Once an order has been placed its live status is read back, so the ticket follows the
+     * order through shipping and delivery.
+     */
+    @Override
+    public OrderTicket getTicket(UUID trackingId) {
+        OrderTicket ticket = tickets.getIfPresent(trackingId);
+        if (ticket == null) {
+            throw new OrderNotFoundException("No queued order with tracking id: " + trackingId);
+        }
+        if (ticket.orderId() == null) {
+            return ticket;
+        }
+        return orderRepository.findStatusById(ticket.orderId())
+                .map(status -> ticket.placed(ticket.orderId(), status))
+                .orElse(ticket);
+    }
+
+    private void consume() {
+        List<QueuedOrder> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedOrder first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<QueuedOrder> batch) {
+        try {
+            batchProcessor.process(batch).forEach(ticket -> tickets.put(ticket.trackingId(), ticket));
+        } catch (RuntimeException e) {
+            // Thrown before the batch committed, so none of its orders was placed
+            log.error("Failed to place a batch of {} queued orders", batch.size(), e);
+            batch.forEach(queued -> tickets.put(queued.trackingId(), queued.ticket().cancelled("Order could not be placed")));
+        }
+    }
+}
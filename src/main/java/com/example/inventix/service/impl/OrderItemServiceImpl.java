@@ -1,6 +1,6 @@
 package com.example.inventix.service.impl;
 
-import com.example.inventix.exception.InsufficientStockException;
+import com.example.inventix.analytics.SalesAggregator;
 import com.example.inventix.exception.OrderItemNotFoundException;
 import com.example.inventix.exception.OrderNotFoundException;
 import com.example.inventix.model.Order;
@@ -10,8 +10,10 @@ import com.example.inventix.repository.OrderItemRepository;
 import com.example.inventix.repository.OrderRepository;
 import com.example.inventix.service.OrderItemService;
 import com.example.inventix.service.ProductService;
+import com.example.inventix.stock.StockMovementJournal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -22,79 +24,108 @@ public class OrderItemServiceImpl implements OrderItemService {
     private final OrderItemRepository orderItemRepository;
     private final OrderRepository orderRepository;
     private final ProductService productService;
+    private final SalesAggregator salesAggregator;
+    private final StockMovementJournal stockMovementJournal;
 
     @Autowired
     public OrderItemServiceImpl(OrderItemRepository orderItemRepository,
                                 OrderRepository orderRepository,
-                                ProductService productService) {
+                                ProductService productService,
+                                SalesAggregator salesAggregator,
+                                StockMovementJournal stockMovementJournal) {
         this.orderItemRepository = orderItemRepository;
         this.orderRepository = orderRepository;
         this.productService = productService;
+        this.salesAggregator = salesAggregator;
+        this.stockMovementJournal = stockMovementJournal;
     }
 
     @Override
+    @Transactional
     public OrderItem createOrderItem(Long orderId, OrderItem orderItem) {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
 
-        Product product = productService.getProductById(orderItem.getProduct().getId());
-        if (product.getQuantity() < orderItem.getQuantity()) {
-            throw new InsufficientStockException("Not enough stock for product: " + product.getName());
-        }
-        product.setQuantity(product.getQuantity() - orderItem.getQuantity());
-        productService.updateProduct(product.getId(), product);
+        // Conditional decrement: concurrent checkouts can never take the stock below zero
+        Long productId = orderItem.getProduct().getId();
+        productService.reserveStock(productId, orderItem.getQuantity());
+        Product product = productService.getProductById(productId);
 
         orderItem.setOrder(order);
+        orderItem.setProduct(product);
         orderItem.setPricePerUnit(product.getPrice());
         orderItem.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(orderItem.getQuantity())));
 
         order.getOrderItems().add(orderItem);
-        orderRepository.save(order); // Save the order with the new item
-
-        return orderItemRepository.save(orderItem);
+        addToTotal(order, orderItem.getSubtotal());
+        salesAggregator.recordItem(orderItem, order.getCreatedAt(), 1);
+        OrderItem savedItem = orderItemRepository.save(orderItem);
+        stockMovementJournal.attribute(productId, savedItem.getId());
+        return savedItem;
     }
 
     @Override
+    @Transactional
     public OrderItem updateOrderItem(Long itemId, OrderItem updatedItem) {
         OrderItem existingItem = orderItemRepository.findById(itemId)
                 .orElseThrow(() -> new OrderItemNotFoundException("OrderItem not found with id: " + itemId));
 
-        Product product = productService.getProductById(existingItem.getProduct().getId());
-        product.setQuantity(product.getQuantity() + existingItem.getQuantity());
-
-        if (product.getQuantity() < updatedItem.getQuantity()) {
-            throw new InsufficientStockException("Not enough stock for product: " + product.getName());
+        // Only the difference between the old and new quantity touches the stock
+        Long productId = existingItem.getProduct().getId();
+        int delta = updatedItem.getQuantity() - existingItem.getQuantity();
+        if (delta > 0) {
+            productService.reserveStock(productId, delta);
+        } else if (delta < 0) {
+            productService.releaseStock(productId, -delta);
         }
+        Product product = productService.getProductById(productId);
 
-        product.setQuantity(product.getQuantity() - updatedItem.getQuantity());
-        productService.updateProduct(product.getId(), product);
-
+        BigDecimal previousSubtotal = existingItem.getSubtotal();
         existingItem.setQuantity(updatedItem.getQuantity());
         existingItem.setPricePerUnit(product.getPrice());
         existingItem.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(updatedItem.getQuantity())));
+        BigDecimal subtotalDelta = existingItem.getSubtotal().subtract(previousSubtotal);
+        addToTotal(existingItem.getOrder(), subtotalDelta);
+        salesAggregator.record(productId, existingItem.getOrder().getCreatedAt(), delta, subtotalDelta);
+        stockMovementJournal.attribute(productId, itemId);
 
         return orderItemRepository.save(existingItem);
     }
 
     @Override
+    @Transactional
     public void deleteOrderItem(Long itemId) {
         OrderItem orderItem = orderItemRepository.findById(itemId)
                 .orElseThrow(() -> new OrderItemNotFoundException("OrderItem not found with id: " + itemId));
 
         // Restore product stock
-        Product product = orderItem.getProduct();
-        product.setQuantity(product.getQuantity() + orderItem.getQuantity());
-        productService.updateProduct(product.getId(), product);
+        productService.releaseStock(orderItem.getProduct().getId(), orderItem.getQuantity());
+        stockMovementJournal.attribute(orderItem.getProduct().getId(), itemId);
 
         // Remove the OrderItem from the Order's list
         Order order = orderItem.getOrder();
+        addToTotal(order, orderItem.getSubtotal().negate());
+        salesAggregator.recordItem(orderItem, order.getCreatedAt(), -1);
         order.getOrderItems().remove(orderItem); // Orphan removal ensures this is deleted
         orderRepository.save(order);
     }
 
+    /**
+     * Applies a subtotal change to the order's total with one in-place update, and mirrors it on
+     * the loaded entity so callers see the new total without a reload.
+     */
+    private void addToTotal(Order order, BigDecimal delta) {
+        if (delta.signum() == 0) {
+            return;
+        }
+        orderRepository.addToTotal(order.getId(), delta);
+        BigDecimal total = order.getTotalAmount() != null ? order.getTotalAmount() : BigDecimal.ZERO;
+        order.setTotalAmount(total.add(delta));
+    }
+
     @Override
     public List<OrderItem> getOrderItemsByOrderId(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + orderId));
         return order.getOrderItems();
     }
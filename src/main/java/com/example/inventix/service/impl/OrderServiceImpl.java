@@ -1,34 +1,84 @@
 package com.example.inventix.service.impl;
 
+import com.example.inventix.analytics.SalesAggregator;
+import com.example.inventix.config.RetryConfig;
+import com.example.inventix.dto.OrderLineView;
+import com.example.inventix.dto.OrderView;
+import com.example.inventix.event.OrderCreatedEvent;
+import com.example.inventix.event.OrderStatusChangedEvent;
 import com.example.inventix.exception.OrderNotFoundException;
+import com.example.inventix.exception.ProductNotFoundException;
 import com.example.inventix.model.Order;
 import com.example.inventix.model.OrderItem;
 import com.example.inventix.model.OrderStatus;
+import com.example.inventix.model.Product;
 import com.example.inventix.repository.OrderRepository;
 import com.example.inventix.service.OrderItemService;
 import com.example.inventix.service.OrderService;
+import com.example.inventix.service.ProductService;
+import com.example.inventix.stock.StockMovementJournal;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class OrderServiceImpl implements OrderService {
 
+    private static final Logger log = LoggerFactory.getLogger(OrderServiceImpl.class);
+
+    private static final int VIEW_CHUNK_SIZE = 500;
+
     private final OrderRepository orderRepository;
     private final OrderItemService orderItemService;
+    private final ProductService productService;
+    private final EntityManager entityManager;
+    private final SalesAggregator salesAggregator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockMovementJournal stockMovementJournal;
 
     @Autowired
-    public OrderServiceImpl(OrderRepository orderRepository, OrderItemService orderItemService) {
+    public OrderServiceImpl(OrderRepository orderRepository,
+                            OrderItemService orderItemService,
+                            ProductService productService,
+                            EntityManager entityManager,
+                            SalesAggregator salesAggregator,
+                            ApplicationEventPublisher eventPublisher,
+                            StockMovementJournal stockMovementJournal) {
         this.orderRepository = orderRepository;
         this.orderItemService = orderItemService;
+        this.productService = productService;
+        this.entityManager = entityManager;
+        this.salesAggregator = salesAggregator;
+        this.eventPublisher = eventPublisher;
+        this.stockMovementJournal = stockMovementJournal;
     }
 
     @Override
+    @Transactional
     public Order createOrder(Order order) {
         order.setOrderItems(new ArrayList<>()); // Initialize empty list for OrderItems
-        return orderRepository.save(order);
+        order.setTotalAmount(BigDecimal.ZERO); // Items added later add their subtotals; a client total is ignored
+        Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderCreatedEvent(savedOrder));
+        return savedOrder;
     }
 
     @Override
@@ -38,6 +88,49 @@ public class OrderServiceImpl implements OrderService {
         return getOrderById(savedOrder.getId()); // Return the updated order
     }
 
+    @Override
+    @Transactional
+    public Order createBulkOrder(Order order, List<OrderItem> orderItems) {
+        // A negative line would pass the conditional update and add stock instead
+        for (OrderItem item : orderItems) {
+            if (item.getProduct() == null || item.getProduct().getId() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Every item needs a product id and a positive quantity");
+            }
+        }
+
+        // Lines for the same product are reserved with a single conditional update, in product id
+        // order so two orders naming the same products cannot deadlock on their row locks
+        Map<Long, Integer> quantitiesByProduct = new TreeMap<>();
+        orderItems.forEach(item -> quantitiesByProduct.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum));
+
+        // Any shortfall throws and rolls back every reservation made before it
+        quantitiesByProduct.forEach(productService::reserveStock);
+
+        Map<Long, Product> products = productService.getProductsByIds(quantitiesByProduct.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        orderItems.forEach(item -> {
+            Product product = products.get(item.getProduct().getId());
+            if (product == null) {
+                throw new ProductNotFoundException("Product not found with id: " + item.getProduct().getId());
+            }
+            item.setOrder(order);
+            item.setProduct(product);
+            item.setPricePerUnit(product.getPrice());
+            item.setSubtotal(product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+            salesAggregator.recordItem(item, order.getCreatedAt(), 1);
+        });
+
+        // Items are cascaded from the order and flushed as JDBC batches on commit
+        order.setOrderItems(new ArrayList<>(orderItems));
+        order.setTotalAmount(Order.sumSubtotals(orderItems));
+        Order savedOrder = orderRepository.save(order);
+        // A product's lines share one reservation, which is attributed to its first line
+        savedOrder.getOrderItems().forEach(item -> stockMovementJournal.attribute(item.getProduct().getId(), item.getId()));
+        eventPublisher.publishEvent(new OrderCreatedEvent(savedOrder));
+        return savedOrder;
+    }
+
     @Override
     public Order addOrderItems(Long orderId, List<OrderItem> newItems) {
         newItems.forEach(item -> orderItemService.createOrderItem(orderId, item));
@@ -46,26 +139,33 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public Order getOrderById(Long id) {
-        return orderRepository.findById(id)
+        return orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
     }
 
+    /**
+     * Replaces the order's items in one transaction: if a new item cannot be placed, the old
+     * items, the stock and the sales recorded for them are left as they were.
+     */
     @Override
+    @Transactional
     public Order updateOrder(Long id, Order updatedOrder) {
         Order existingOrder = getOrderById(id); // Retrieve existing order
 
-        // Clear existing items
+        // Clear existing items; orphan removal deletes them when the order is saved. Their sales
+        // are taken back when the update commits
+        existingOrder.getOrderItems().forEach(item -> salesAggregator.recordItem(item, existingOrder.getCreatedAt(), -1));
         existingOrder.getOrderItems().clear();
 
-        // Add new items and save them to the database
+        // Each new item joins the managed order's item list as it is created
         List<OrderItem> newItems = updatedOrder.getOrderItems();
-        newItems.forEach(item -> {
-            OrderItem createdItem = orderItemService.createOrderItem(existingOrder.getId(), item);
-            existingOrder.getOrderItems().add(createdItem); // Add created items to the order
-        });
+        newItems.forEach(item -> orderItemService.createOrderItem(existingOrder.getId(), item));
 
-        // Save the updated order and return
-        return orderRepository.save(existingOrder);
+        // Save the updated order; the replaced items were never subtracted, so rebuild the total
+        Order savedOrder = orderRepository.save(existingOrder);
+        orderRepository.recomputeTotal(savedOrder.getId());
+        savedOrder.setTotalAmount(Order.sumSubtotals(savedOrder.getOrderItems()));
+        return savedOrder;
     }
 
     @Override
@@ -81,13 +181,113 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+        return orderRepository.findAllWithItems();
+    }
+
+    @Override
+    public List<Order> getOrdersAfter(Long lastId, int limit) {
+        return orderRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllOrders(Consumer<Order> consumer) {
+        try (Stream<Order> orders = orderRepository.streamAllOrderById()) {
+            orders.forEach(order -> {
+                consumer.accept(order);
+                entityManager.clear(); // Keep the persistence context from growing with the table
+            });
+        }
+    }
+
+    /**
+     * Two statements whatever the order's size: its columns, then its lines.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public OrderView getOrderView(Long id) {
+        OrderView order = orderRepository.findViewById(id)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with id: " + id));
+        return order.withItems(orderRepository.findLineViews(List.of(id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<OrderView> getOrderViewsAfter(Long lastId, int limit) {
+        return withLines(orderRepository.findViewsAfter(lastId, Limit.of(limit)));
+    }
+
+    /**
+     * Orders are read off one cursor and their lines fetched per chunk of
+     * {@value #VIEW_CHUNK_SIZE} orders.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllOrderViews(Consumer<OrderView> consumer) {
+        try (Stream<OrderView> orders = orderRepository.streamAllViews()) {
+            List<OrderView> chunk = new ArrayList<>(VIEW_CHUNK_SIZE);
+            orders.forEach(order -> {
+                chunk.add(order);
+                if (chunk.size() == VIEW_CHUNK_SIZE) {
+                    withLines(chunk).forEach(consumer);
+                    chunk.clear();
+                }
+            });
+            withLines(chunk).forEach(consumer);
+        }
+    }
+
+    private List<OrderView> withLines(List<OrderView> orders) {
+        if (orders.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<OrderLineView>> lines = orderRepository
+                .findLineViews(orders.stream().map(OrderView::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(OrderLineView::orderId));
+        return orders.stream()
+                .map(order -> order.withItems(lines.getOrDefault(order.id(), List.of())))
+                .toList();
+    }
+
+    /**
+     * Revenue over every order that was not cancelled, summed from the maintained order totals
+     * rather than from the items.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getTotalRevenue() {
+        return orderRepository.sumTotalAmountByStatusNot(OrderStatus.CANCELLED);
+    }
+
+    /**
+     * Rebuilds any order total that has drifted from its items, e.g. after items were written
+     * outside the service layer.
+     */
+    @Override
+    @Transactional
+    public int repairTotals() {
+        int repaired = orderRepository.recomputeTotals();
+        if (repaired > 0) {
+            log.warn("Repaired {} order totals that had drifted from their items", repaired);
+        }
+        return repaired;
     }
 
     @Override
+    @Retryable(retryFor = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${inventix.retry.max-attempts:5}",
+            backoff = @Backoff(delayExpression = "${inventix.retry.initial-delay-ms:5}",
+                    maxDelayExpression = "${inventix.retry.max-delay-ms:200}",
+                    multiplier = 2, random = true),
+            listeners = RetryConfig.OPTIMISTIC_LOCK_LISTENER)
+    @Transactional
     public Order updateOrderStatus(Long id, OrderStatus status) {
         Order orderToUpdate = getOrderById(id);
+        OrderStatus previousStatus = orderToUpdate.getStatus();
         orderToUpdate.setStatus(status);
-        return orderRepository.save(orderToUpdate);
+        Order savedOrder = orderRepository.save(orderToUpdate);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(id, previousStatus, status));
+        return savedOrder;
     }
 }
@@ -0,0 +1,67 @@
+package com.example.inventix.service.impl;
+
+import com.example.inventix.batch.ProductImportJobConfig;
+import com.example.inventix.batch.ProductImportResult;
+import com.example.inventix.exception.ProductImportException;
+import com.example.inventix.service.ProductImportService;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private final JobLauncher jobLauncher;
+    private final Job productImportJob;
+    private final Path importDirectory;
+
+    @Autowired
+    public ProductImportServiceImpl(JobLauncher jobLauncher,
+                                    @Qualifier("productImportJob") Job productImportJob,
+                                    @Value("${inventix.import.directory:import}") Path importDirectory) {
+        this.jobLauncher = jobLauncher;
+        this.productImportJob = productImportJob;
+        this.importDirectory = importDirectory.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Runs the import for one file and day. {@code inputFile} is a path relative to the import
+     * directory; absolute paths and paths containing {@code ..} are rejected. Launching a file
+     * and day whose last run failed restarts that run from its last committed chunk.
+     */
+    @Override
+    public ProductImportResult importProducts(String inputFile, LocalDate importDate) {
+        JobParameters parameters = new JobParametersBuilder()
+                .addString(ProductImportJobConfig.INPUT_FILE_PARAMETER, resolve(inputFile).toString())
+                .addLocalDate("import.date", importDate)
+                .toJobParameters();
+        try {
+            JobExecution execution = jobLauncher.run(productImportJob, parameters);
+            return ProductImportResult.from(execution);
+        } catch (JobExecutionException e) {
+            throw new ProductImportException("Could not run product import for " + inputFile, e);
+        }
+    }
+
+    private Path resolve(String inputFile) {
+        Path relative = Path.of(inputFile);
+        boolean escapes = false;
+        for (Path segment : relative) {
+            escapes |= segment.toString().equals("..");
+        }
+        if (inputFile.isBlank() || relative.isAbsolute() || relative.getRoot() != null || escapes) {
+            throw new IllegalArgumentException("Import file must be a path inside the import directory: " + inputFile);
+        }
+        return importDirectory.resolve(relative).normalize();
+    }
+}
@@ -1,47 +1,210 @@
 package com.example.inventix.service.impl;
 
+import com.example.inventix.catalog.CatalogDelta;
+import com.example.inventix.catalog.CatalogVersion;
+import com.example.inventix.catalog.CatalogVersionTracker;
+import com.example.inventix.catalog.ProductLookups;
+import com.example.inventix.config.CacheConfig;
+import com.example.inventix.config.RetryConfig;
+import com.example.inventix.dto.ProductView;
+import com.example.inventix.event.ProductChangedEvent;
+import com.example.inventix.exception.InsufficientStockException;
 import com.example.inventix.exception.ProductNotFoundException;
+import com.example.inventix.exception.ProductVersionConflictException;
 import com.example.inventix.model.Product;
+import com.example.inventix.model.StockMovement;
 import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.repository.ProductTombstoneRepository;
+import com.example.inventix.search.ProductSearchHit;
+import com.example.inventix.search.ProductSearchIndex;
 import com.example.inventix.service.ProductService;
+import com.example.inventix.stock.StockBuckets;
+import com.example.inventix.stock.StockChangedEvent;
+import com.example.inventix.stock.StockHistoryPoint;
+import com.example.inventix.stock.StockLedger;
+import com.example.inventix.stock.StockLevel;
+import com.example.inventix.stock.StockMovementJournal;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final EntityManager entityManager;
+    // Present only with inventix.stock.ledger.enabled; otherwise stock is reserved in the database
+    private final StockLedger stockLedger;
+    private final StockBuckets stockBuckets;
+    // Every quantity change, including those made for order items, is announced as a StockChangedEvent
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockMovementJournal stockMovementJournal;
+    // Kept current by the ProductChangedEvents published on create, update and delete
+    private final ProductSearchIndex searchIndex;
+    // Stamps every product change with a catalog version as it commits, from the same events
+    private final CatalogVersionTracker catalogVersions;
+    private final ProductTombstoneRepository tombstoneRepository;
+    private final ProductLookups productLookups;
 
     @Autowired
-    public ProductServiceImpl(ProductRepository productRepository) {
+    public ProductServiceImpl(ProductRepository productRepository,
+                              EntityManager entityManager,
+                              ObjectProvider<StockLedger> stockLedger,
+                              StockBuckets stockBuckets,
+                              ApplicationEventPublisher eventPublisher,
+                              StockMovementJournal stockMovementJournal,
+                              ProductSearchIndex searchIndex,
+                              CatalogVersionTracker catalogVersions,
+                              ProductTombstoneRepository tombstoneRepository,
+                              ProductLookups productLookups) {
         this.productRepository = productRepository;
+        this.entityManager = entityManager;
+        this.stockLedger = stockLedger.getIfAvailable();
+        this.stockBuckets = stockBuckets;
+        this.eventPublisher = eventPublisher;
+        this.stockMovementJournal = stockMovementJournal;
+        this.searchIndex = searchIndex;
+        this.catalogVersions = catalogVersions;
+        this.tombstoneRepository = tombstoneRepository;
+        this.productLookups = productLookups;
     }
 
     @Override
+    @Transactional
     public Product createProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        eventPublisher.publishEvent(StockChangedEvent.set(saved.getId(), saved.getQuantity() != null ? saved.getQuantity() : 0));
+        return saved;
     }
 
+    /**
+     * Applies the client's fields over the product. A client that sends the catalog version it
+     * last read, as {@code catalogVersion}, gets a {@link ProductVersionConflictException}
+     * instead of overwriting a catalog edit made since; stock movements do not change it.
+     * Without one the update overwrites whatever is there.
+     * <p>
+     * The save is guarded by the row version. A concurrent update or stock reservation between
+     * the read and the save makes it fail, and the call is retried on fresh state, where the
+     * catalog version is checked again: only a conflict the client could not have seen is retried.
+     *
+     * @throws IllegalArgumentException if the quantity is missing or negative
+     */
     @Override
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    @Retryable(retryFor = OptimisticLockingFailureException.class,
+            maxAttemptsExpression = "${inventix.retry.max-attempts:5}",
+            backoff = @Backoff(delayExpression = "${inventix.retry.initial-delay-ms:5}",
+                    maxDelayExpression = "${inventix.retry.max-delay-ms:200}",
+                    multiplier = 2, random = true),
+            listeners = RetryConfig.OPTIMISTIC_LOCK_LISTENER)
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
+        if (productDetails.getQuantity() == null || productDetails.getQuantity() < 0) {
+            throw new IllegalArgumentException("An updated product needs a quantity of zero or more");
+        }
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        // Rows never changed through the application have no catalog version; their ETag is 0
+        long catalogVersion = existingProduct.getCatalogVersion() != null ? existingProduct.getCatalogVersion() : 0;
+        if (productDetails.getCatalogVersion() != null && productDetails.getCatalogVersion() != catalogVersion) {
+            throw new ProductVersionConflictException("Product " + id + " is at catalog version " + catalogVersion
+                    + ", not " + productDetails.getCatalogVersion());
+        }
 
         existingProduct.setName(productDetails.getName());
         existingProduct.setSku(productDetails.getSku());
         existingProduct.setDescription(productDetails.getDescription());
         existingProduct.setPrice(productDetails.getPrice());
-        existingProduct.setQuantity(productDetails.getQuantity());
+        existingProduct.setReorderPoint(productDetails.getReorderPoint());
+        eventPublisher.publishEvent(ProductChangedEvent.saved(existingProduct));
+        if (stockLedger == null && existingProduct.getStockBuckets() == 0) {
+            existingProduct.setQuantity(productDetails.getQuantity());
+            Product saved = productRepository.save(existingProduct);
+            eventPublisher.publishEvent(StockChangedEvent.set(id, productDetails.getQuantity()));
+            return saved;
+        }
+        // The ledger or the buckets own the quantity; the product row keeps the rest
+        Product saved = productRepository.save(existingProduct);
+        if (stockLedger != null) {
+            stockLedger.set(id, productDetails.getQuantity());
+        } else {
+            stockBuckets.refill(id, saved.getStockBuckets(), productDetails.getQuantity());
+        }
+        eventPublisher.publishEvent(StockChangedEvent.set(id, productDetails.getQuantity()));
+        // Setting it on the managed entity would write it to the product row on commit
+        return withQuantity(saved, productDetails.getQuantity());
+    }
 
-        return productRepository.save(existingProduct);
+    /**
+     * Moves the product's stock into {@code buckets} bucket rows, or back into the product row
+     * when {@code buckets} is 0. The product's version guards against a reservation on the
+     * product row in between.
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
+    public Product setStockBuckets(Long id, int buckets) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        int total = product.getQuantity() + stockBuckets.drain(id);
+        if (buckets > 0) {
+            stockBuckets.fill(id, buckets, total);
+            product.setQuantity(0);
+        } else {
+            stockBuckets.forget(id);
+            product.setQuantity(total);
+        }
+        product.setStockBuckets(buckets);
+        return withBucketedQuantity(productRepository.save(product));
     }
 
+    /**
+     * Served from the products cache. The cached quantity may trail the database by up to the
+     * cache TTL because reservations do not evict; it is for display only. Stock decisions always
+     * go through {@link #reserveStock(Long, int)}, whose conditional UPDATE reads the live row.
+     * Misses outside a transaction coalesce with concurrent ones in {@link ProductLookups}.
+     */
     @Override
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        Optional<Product> product = TransactionSynchronizationManager.isActualTransactionActive()
+                ? productRepository.findById(id)
+                : productLookups.findProduct(id);
+        return withBucketedQuantity(product
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id)));
+    }
+
+    @Override
+    public Product getProductBySku(String sku) {
+        return withBucketedQuantity(productRepository.findBySku(sku)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with sku: " + sku)));
+    }
+
+    @Override
+    public List<Product> getProductsBySkus(Collection<String> skus) {
+        return productRepository.findAllBySkuIn(skus).stream().map(this::withBucketedQuantity).toList();
     }
 
     @Override
@@ -50,10 +213,228 @@ public class ProductServiceImpl implements ProductService {
     }
 
     @Override
+    public List<Product> getProductsAfter(Long lastId, int limit) {
+        return productRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProducts(Consumer<Product> consumer) {
+        try (Stream<Product> products = productRepository.streamAllOrderById()) {
+            products.forEach(product -> {
+                consumer.accept(product);
+                entityManager.clear(); // Keep the persistence context from growing with the table
+            });
+        }
+    }
+
+    @Override
+    public List<ProductView> getProductViewsAfter(Long lastId, int limit) {
+        return productRepository.findViewsAfter(lastId, Limit.of(limit));
+    }
+
+    /**
+     * Views are not entities, so unlike {@link #streamAllProducts} nothing accumulates in the
+     * persistence context.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllProductViews(Consumer<ProductView> consumer) {
+        try (Stream<ProductView> products = productRepository.streamAllViews()) {
+            products.forEach(consumer);
+        }
+    }
+
+    /**
+     * Catalog fields only, read fresh rather than through the products cache so they match the
+     * product's catalog version. The live quantity is {@link #getStockLevel}'s. Concurrent
+     * lookups coalesce as in {@link #getProductById}.
+     */
+    @Override
+    public ProductView getProductView(Long id) {
+        Optional<ProductView> view = TransactionSynchronizationManager.isActualTransactionActive()
+                ? productRepository.findViewById(id)
+                : productLookups.findView(id);
+        return view.orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+    }
+
+    @Override
+    public CatalogVersion getCatalogVersion() {
+        return catalogVersions.current();
+    }
+
+    @Override
+    public Optional<CatalogVersion> getProductCatalogVersion(Long id) {
+        return productRepository.findCatalogVersionById(id);
+    }
+
+    /**
+     * Changes after {@code since} in (version, id) order, up to the current catalog version.
+     * When {@code limit} products fill the page, the delta ends at the version of the last one
+     * and the caller continues from it with that product's id as {@code afterId}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogDelta getCatalogChanges(long since, long afterId, int limit) {
+        long upTo = catalogVersions.current().version();
+        if (since > upTo || (since == upTo && afterId == Long.MAX_VALUE)) {
+            return new CatalogDelta(upTo, List.of(), List.of());
+        }
+        List<ProductView> products = productRepository.findViewsChangedBetween(since, afterId, upTo, Limit.of(limit));
+        if (products.size() == limit) {
+            upTo = products.get(limit - 1).catalogVersion();
+        }
+        // A continued page already had the deletions of version since
+        return new CatalogDelta(upTo, products, tombstoneRepository.findProductIdsDeletedBetween(since, upTo));
+    }
+
+    /**
+     * Ranks matches in the in-memory search index, then loads just those products in one
+     * query. A product deleted behind the index's back (e.g. by a bulk delete) is skipped.
+     */
+    @Override
+    public List<Product> searchProducts(String query, int limit) {
+        List<ProductSearchHit> hits = searchIndex.search(query, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> products = productRepository.findAllById(hits.stream().map(ProductSearchHit::productId).toList())
+                .stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return hits.stream()
+                .map(hit -> products.get(hit.productId()))
+                .filter(Objects::nonNull)
+                .map(this::withBucketedQuantity)
+                .toList();
+    }
+
+    @Override
+    public List<Product> getProductsByIds(Collection<Long> ids) {
+        return productRepository.findAllById(ids);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUCTS_CACHE, key = "#id")
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new ProductNotFoundException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        stockBuckets.remove(id);
+        if (stockLedger != null) {
+            stockLedger.forget(id);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+        eventPublisher.publishEvent(StockChangedEvent.set(id, 0));
+    }
+
+    @Override
+    @Transactional
+    public void reserveStock(Long id, int quantity) {
+        if (reserve(id, quantity)) {
+            eventPublisher.publishEvent(StockChangedEvent.moved(id, -quantity));
+            return;
+        }
+        // Only the failure path pays for a second round trip to tell the two cases apart
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        throw new InsufficientStockException("Not enough stock for product: " + product.getName());
+    }
+
+    /**
+     * Like {@link #reserveStock(Long, int)}, but a shortfall is reported instead of thrown, so
+     * it does not mark the caller's transaction rollback-only.
+     */
+    @Override
+    @Transactional
+    public boolean tryReserveStock(Long id, int quantity) {
+        if (!reserve(id, quantity)) {
+            return false;
+        }
+        eventPublisher.publishEvent(StockChangedEvent.moved(id, -quantity));
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void releaseStock(Long id, int quantity) {
+        if (stockLedger != null) {
+            stockLedger.release(id, quantity);
+        } else if (stockBuckets.bucketCount(id) > 0 && stockBuckets.release(id, quantity)) {
+            // Returned to a bucket; if the buckets were merged back meanwhile, the row takes it below
+        } else if (productRepository.releaseStock(id, quantity) == 0) {
+            throw new ProductNotFoundException("Product not found with id: " + id);
+        }
+        eventPublisher.publishEvent(StockChangedEvent.moved(id, quantity));
+    }
+
+    /**
+     * Current available quantity read from wherever the product's stock lives, bypassing the
+     * products cache.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public StockLevel getStockLevel(Long id) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with id: " + id));
+        int quantity;
+        if (stockLedger != null) {
+            quantity = (int) stockLedger.available(id);
+        } else if (product.getStockBuckets() > 0) {
+            quantity = (int) stockBuckets.quantity(id);
+        } else {
+            quantity = product.getQuantity();
+        }
+        return new StockLevel(id, product.getSku(), product.getName(), quantity, product.getReorderPoint());
+    }
+
+    /**
+     * Replayed from the stock movement journal, so it also answers for deleted products.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StockHistoryPoint> getStockLevelAt(Long id, LocalDateTime at) {
+        return stockMovementJournal.quantityAt(id, at).map(quantity -> new StockHistoryPoint(id, at, quantity));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockMovement> getStockMovements(Long id, LocalDateTime from, LocalDateTime to, int limit) {
+        return stockMovementJournal.movements(id, from, to, limit);
+    }
+
+    private boolean reserve(Long id, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Reserved quantity must be positive: " + quantity);
+        }
+        if (stockLedger != null) {
+            return stockLedger.reserve(id, quantity);
+        }
+        if (stockBuckets.bucketCount(id) > 0) {
+            return stockBuckets.reserve(id, quantity);
+        }
+        return productRepository.reserveStock(id, quantity) == 1;
+    }
+
+    /**
+     * For a bucketed product, returns a copy carrying the summed bucket quantity. The entity
+     * itself is left alone so a managed instance never writes the sum to the product row.
+     */
+    private Product withBucketedQuantity(Product product) {
+        if (product.getStockBuckets() == 0) {
+            return product;
+        }
+        return withQuantity(product, (int) stockBuckets.quantity(product.getId()));
+    }
+
+    /**
+     * A detached copy of the product carrying {@code quantity}, for quantities the product row
+     * does not hold.
+     */
+    private static Product withQuantity(Product product, int quantity) {
+        return new Product(product.getId(), product.getName(), product.getSku(), product.getDescription(),
+                product.getPrice(), quantity, product.getCreatedAt(), product.getUpdatedAt(), product.getVersion(),
+                product.getStockBuckets(), product.getReorderPoint(), product.getCatalogVersion());
     }
-}
\ No newline at end of file
+}
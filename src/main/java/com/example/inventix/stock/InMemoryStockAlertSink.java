@@ -0,0 +1,39 @@
+package com.example.inventix.stock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps alerts in a queue for tests and local runs to inspect.
+ */
+@Component
+@ConditionalOnProperty(name = "inventix.alerts.sink", havingValue = "memory")
+public class InMemoryStockAlertSink implements StockAlertSink {
+
+    private final BlockingQueue<StockAlert> alerts = new LinkedBlockingQueue<>();
+
+    @Override
+    public void send(StockAlert alert) {
+        alerts.add(alert);
+    }
+
+    /**
+     * Waits up to {@code timeout} for the next alert; returns null if none arrives.
+     */
+    public StockAlert poll(Duration timeout) throws InterruptedException {
+        return alerts.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public List<StockAlert> drain() {
+        List<StockAlert> drained = new ArrayList<>();
+        alerts.drainTo(drained);
+        return drained;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.inventix.stock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "inventix.alerts.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingStockAlertSink implements StockAlertSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingStockAlertSink.class);
+
+    @Override
+    public void send(StockAlert alert) {
+        log.warn("Low stock: product {} ({}) is down to {} units, reorder point {}",
+                alert.productId(), alert.sku(), alert.quantity(), alert.reorderPoint());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.inventix.stock;
+
+import com.example.inventix.exception.ProductNotFoundException;
+import com.example.inventix.service.ProductService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Raises a {@link StockAlert} when a product's available quantity crosses down to its reorder
+ * point. Each committed {@link StockChangedEvent} costs one stock-level read for that product,
+ * never a scan. The engine remembers whether each product is currently low, so an alert fires
+ * once per crossing and re-arms when stock climbs back above the reorder point.
+ * <p>
+ * Evaluation runs off the committing thread, one evaluation per product at a time: changes
+ * that arrive while a product's evaluation is queued or running are coalesced into one more
+ * pass after it. Readings of a product are therefore applied in the order they were taken, and
+ * a stale one never overwrites a fresher one. The low/normal state is in memory: after a
+ * restart, a product that is already low alerts again on its next change.
+ */
+@Component
+@ConditionalOnProperty(name = "inventix.alerts.enabled", havingValue = "true", matchIfMissing = true)
+public class LowStockAlertEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockAlertEngine.class);
+
+    private final ProductService productService;
+    private final StockAlertSink alertSink;
+    private final int defaultReorderPoint;
+
+    private final Map<Long, Boolean> low = new ConcurrentHashMap<>();
+    // Present while a product's evaluation is queued or running; true asks for another pass
+    private final Map<Long, Boolean> scheduled = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public LowStockAlertEngine(ProductService productService,
+                               StockAlertSink alertSink,
+                               @Value("${inventix.alerts.default-reorder-point:10}") int defaultReorderPoint) {
+        this.productService = productService;
+        this.alertSink = alertSink;
+        this.defaultReorderPoint = defaultReorderPoint;
+    }
+
+    /**
+     * Runs after the publishing transaction commits, so rolled-back reservations never alert,
+     * or straight away when the change was made outside a transaction.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        Long productId = event.productId();
+        if (scheduled.put(productId, true) == null) {
+            executor.execute(() -> drain(productId));
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Evaluates the product until no change is waiting. Only this task evaluates it meanwhile:
+     * a new one is scheduled only once the product has left {@code scheduled}.
+     */
+    private void drain(Long productId) {
+        do {
+            // Take the pending pass before reading, so a change made during the read asks for another
+            while (scheduled.replace(productId, true, false)) {
+                evaluate(productId);
+            }
+            // Fails only if a change asked for another pass since the last one was taken
+        } while (!scheduled.remove(productId, false));
+    }
+
+    private void evaluate(Long productId) {
+        StockLevel level;
+        try {
+            level = productService.getStockLevel(productId);
+        } catch (ProductNotFoundException e) {
+            low.remove(productId);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Could not read stock level of product {}", productId, e);
+            return;
+        }
+        int reorderPoint = level.reorderPoint() != null ? level.reorderPoint() : defaultReorderPoint;
+        boolean isLow = level.quantity() <= reorderPoint;
+        Boolean wasLow = low.put(productId, isLow);
+        if (isLow && !Boolean.TRUE.equals(wasLow)) {
+            alertSink.send(new StockAlert(productId, level.sku(), level.name(), level.quantity(), reorderPoint,
+                    LocalDateTime.now()));
+        }
+    }
+}
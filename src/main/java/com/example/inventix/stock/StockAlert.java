@@ -0,0 +1,10 @@
+package com.example.inventix.stock;
+
+import java.time.LocalDateTime;
+
+/**
+ * Raised once when a product's available quantity falls to or below its reorder point.
+ */
+public record StockAlert(Long productId, String sku, String name, int quantity, int reorderPoint,
+                         LocalDateTime raisedAt) {
+}
@@ -0,0 +1,10 @@
+package com.example.inventix.stock;
+
+/**
+ * Where low-stock alerts go. Exactly one implementation is active, chosen by
+ * {@code inventix.alerts.sink} ({@code log}, {@code webhook} or {@code memory}).
+ */
+public interface StockAlertSink {
+
+    void send(StockAlert alert);
+}
@@ -0,0 +1,160 @@
+package com.example.inventix.stock;
+
+import com.example.inventix.model.StockBucket;
+import com.example.inventix.repository.StockBucketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reserves stock for products whose quantity is split across {@link StockBucket} rows.
+ * <p>
+ * A reservation starts at the bucket its thread hashes to and moves to the next bucket when
+ * that one cannot cover the quantity, so concurrent checkouts of a hot product mostly update
+ * different rows. Only when no single bucket can cover the quantity are all buckets locked,
+ * in bucket order, and the quantity gathered across them.
+ * <p>
+ * Callers must already be in a transaction.
+ */
+@Component
+public class StockBuckets {
+
+    private final StockBucketRepository stockBucketRepository;
+    private final JdbcTemplate jdbcTemplate;
+    // Bucket count per product; products.stock_buckets is read once and kept here
+    private final Map<Long, Integer> bucketCounts = new ConcurrentHashMap<>();
+
+    @Autowired
+    public StockBuckets(StockBucketRepository stockBucketRepository, JdbcTemplate jdbcTemplate) {
+        this.stockBucketRepository = stockBucketRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the product's bucket count, 0 if its stock is a single row or it does not exist
+     */
+    public int bucketCount(Long productId) {
+        return bucketCounts.computeIfAbsent(productId, id -> {
+            List<Integer> count = jdbcTemplate.queryForList("SELECT stock_buckets FROM products WHERE id = ?", Integer.class, id);
+            return count.isEmpty() ? 0 : count.get(0);
+        });
+    }
+
+    public boolean reserve(Long productId, int quantity) {
+        int buckets = bucketCount(productId);
+        int start = home(buckets);
+        for (int i = 0; i < buckets; i++) {
+            if (stockBucketRepository.take(productId, (start + i) % buckets, quantity) == 1) {
+                return true;
+            }
+        }
+        return gather(productId, quantity);
+    }
+
+    /**
+     * Returns {@code quantity} units to the bucket this thread hashes to.
+     *
+     * @return false if that bucket is gone, e.g. because the product's stock moved back to the
+     * product row after the bucket count was cached; the caller must put the units there
+     */
+    public boolean release(Long productId, int quantity) {
+        return stockBucketRepository.give(productId, home(bucketCount(productId)), quantity) == 1;
+    }
+
+    public long quantity(Long productId) {
+        return stockBucketRepository.sumQuantity(productId);
+    }
+
+    /**
+     * Locks and deletes the product's buckets.
+     *
+     * @return the units they held
+     */
+    public int drain(Long productId) {
+        int quantity = stockBucketRepository.findByProductIdOrderByBucketAsc(productId).stream()
+                .mapToInt(StockBucket::getQuantity).sum();
+        stockBucketRepository.deleteByProductId(productId);
+        return quantity;
+    }
+
+    /**
+     * Creates {@code buckets} buckets holding {@code quantity} units between them, spread as
+     * evenly as possible. The new bucket count takes effect for reservations on commit.
+     */
+    public void fill(Long productId, int buckets, int quantity) {
+        List<StockBucket> slices = new ArrayList<>(buckets);
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int share = quantity / buckets + (bucket < quantity % buckets ? 1 : 0);
+            slices.add(new StockBucket(null, productId, bucket, share));
+        }
+        stockBucketRepository.saveAll(slices);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bucketCounts.put(productId, buckets);
+            }
+        });
+    }
+
+    /**
+     * Replaces the product's buckets with new ones holding {@code quantity} units.
+     */
+    @Transactional
+    public void refill(Long productId, int buckets, int quantity) {
+        drain(productId);
+        fill(productId, buckets, quantity);
+    }
+
+    @Transactional
+    public void remove(Long productId) {
+        stockBucketRepository.deleteByProductId(productId);
+        forget(productId);
+    }
+
+    /**
+     * Drops the cached bucket count. Inside a transaction this waits for the commit: a count
+     * re-read before then would still be the old one, and a rollback keeps it.
+     */
+    public void forget(Long productId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bucketCounts.remove(productId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bucketCounts.remove(productId);
+            }
+        });
+    }
+
+    private boolean gather(Long productId, int quantity) {
+        List<StockBucket> locked = stockBucketRepository.findByProductIdOrderByBucketAsc(productId);
+        if (locked.stream().mapToLong(StockBucket::getQuantity).sum() < quantity) {
+            return false;
+        }
+        int remaining = quantity;
+        for (StockBucket bucket : locked) {
+            int taken = Math.min(bucket.getQuantity(), remaining);
+            if (taken > 0) {
+                stockBucketRepository.take(productId, bucket.getBucket(), taken);
+                remaining -= taken;
+            }
+        }
+        return remaining == 0;
+    }
+
+    private static int home(int buckets) {
+        // Fibonacci hashing of the thread id: a thread keeps hitting the same bucket
+        long mixed = Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(mixed >>> 32, (long) buckets);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.inventix.stock;
+
+/**
+ * Published by {@code ProductService} whenever a product's available quantity changes.
+ * {@code delta} is the relative change for reservations and releases; when the quantity was
+ * set outright (create, update, delete) {@code delta} is 0 and {@code quantity} carries the
+ * new level. Alert listeners read the current level themselves, so the event stays cheap to
+ * publish on the reservation path.
+ */
+public record StockChangedEvent(Long productId, int delta, Integer quantity) {
+
+    public static StockChangedEvent moved(Long productId, int delta) {
+        return new StockChangedEvent(productId, delta, null);
+    }
+
+    public static StockChangedEvent set(Long productId, int quantity) {
+        return new StockChangedEvent(productId, 0, quantity);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.inventix.stock;
+
+import java.time.LocalDateTime;
+
+/**
+ * A product's stock level at a past instant, as replayed from the stock movement journal.
+ */
+public record StockHistoryPoint(Long productId, LocalDateTime at, int quantity) {
+}
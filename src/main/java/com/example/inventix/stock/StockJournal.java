@@ -0,0 +1,218 @@
+package com.example.inventix.stock;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only write-ahead log of stock deltas, split into segment files. A record is
+ * {@code (sequence, productId, delta)} as three longs. Appends go to an in-memory buffer;
+ * {@link #sync(long)} writes and fsyncs it, and concurrent callers share one fsync.
+ * <p>
+ * A segment is rolled over on every ledger flush. Once the flush's deltas are committed to the
+ * database, the older segments are deleted.
+ */
+class StockJournal implements AutoCloseable {
+
+    static final int RECORD_BYTES = 3 * Long.BYTES;
+    private static final String SEGMENT_PREFIX = "stock-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    // Not a monitor: a virtual thread waiting on fsync would otherwise pin its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(4096 * RECORD_BYTES);
+    private FileChannel channel;
+    private Path segment;
+    private long segmentFirstSequence;
+    private long lastSequence;
+    private long durableSequence;
+
+    StockJournal(Path directory, long lastSequence) {
+        this.directory = directory;
+        this.lastSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        openSegment();
+    }
+
+    /**
+     * Records a delta and returns its sequence number. The record is durable once
+     * {@link #sync(long)} has been called with that sequence or a later one.
+     */
+    long append(long productId, long delta) {
+        lock.lock();
+        try {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            long sequence = ++lastSequence;
+            buffer.putLong(sequence).putLong(productId).putLong(delta);
+            return sequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Makes every record up to {@code sequence} durable. Callers that arrive while another
+     * caller is syncing usually find their record already on disk and return at once.
+     */
+    void sync(long sequence) {
+        lock.lock();
+        try {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            drain();
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            durableSequence = lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Syncs and closes the current segment and starts a new one.
+     *
+     * @return the closed segments, safe to delete once every record in them is checkpointed
+     */
+    List<Path> rollOver() {
+        lock.lock();
+        try {
+            if (segmentFirstSequence > lastSequence) {
+                // Nothing written since the last roll-over: keep the empty segment open
+                return segments().stream().filter(closed -> !closed.equals(segment)).toList();
+            }
+            sync(lastSequence);
+            closeSegment();
+            List<Path> closed = segments();
+            openSegment();
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static void delete(List<Path> closedSegments) {
+        for (Path closed : closedSegments) {
+            try {
+                Files.deleteIfExists(closed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            sync(lastSequence);
+            closeSegment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reads every record in {@code directory} with a sequence above {@code afterSequence}, in
+     * sequence order. A torn record at the end of a segment (a crash mid-write) is ignored.
+     */
+    static List<long[]> read(Path directory, long afterSequence) {
+        List<long[]> records = new ArrayList<>();
+        for (Path segment : segments(directory)) {
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+                while (in.read(record) == RECORD_BYTES) {
+                    record.flip();
+                    long sequence = record.getLong();
+                    long productId = record.getLong();
+                    long delta = record.getLong();
+                    if (sequence > afterSequence) {
+                        records.add(new long[]{sequence, productId, delta});
+                    }
+                    record.clear();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        records.sort((a, b) -> Long.compare(a[0], b[0]));
+        return records;
+    }
+
+    static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Path> segments() {
+        return segments(directory);
+    }
+
+    private void openSegment() {
+        segmentFirstSequence = lastSequence + 1;
+        // Zero-padded so lexical order is sequence order
+        segment = directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, segmentFirstSequence, SEGMENT_SUFFIX));
+        try {
+            channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeSegment() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void drain() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
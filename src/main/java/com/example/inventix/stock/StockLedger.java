@@ -0,0 +1,284 @@
+package com.example.inventix.stock;
+
+import com.example.inventix.exception.ProductNotFoundException;
+import com.example.inventix.model.StockLedgerCheckpoint;
+import com.example.inventix.repository.StockLedgerCheckpointRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory stock counters that take reservations off the {@code products} table.
+ * <p>
+ * Each product's available quantity is loaded on first use and then changed with a CAS loop,
+ * so a reservation never blocks on another product and never oversells. Every change is first
+ * appended to a {@link StockJournal}; with {@code sync-on-commit} the surrounding transaction
+ * does not commit until its records are on disk. A scheduled flush writes the net delta per
+ * product to the database together with a journal checkpoint, and startup replays whatever
+ * the journal holds beyond that checkpoint. The database stays the system of record.
+ * <p>
+ * The ledger assumes it is the only writer of {@code products.quantity}: run a single
+ * instance with it enabled, and route quantity changes through {@code ProductService}.
+ */
+@Component
+@ConditionalOnProperty(name = "inventix.stock.ledger.enabled", havingValue = "true")
+public class StockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockLedgerCheckpointRepository checkpointRepository;
+    private final Path journalDirectory;
+    private final boolean syncOnCommit;
+    private final StockJournal journal;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    // Reservations share the read lock; a flush takes the write lock only to cut a consistent
+    // snapshot of the pending deltas and the journal position
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public StockLedger(JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       StockLedgerCheckpointRepository checkpointRepository,
+                       MeterRegistry meterRegistry,
+                       @Value("${inventix.stock.ledger.journal-dir}") Path journalDirectory,
+                       @Value("${inventix.stock.ledger.sync-on-commit:true}") boolean syncOnCommit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.checkpointRepository = checkpointRepository;
+        this.journalDirectory = journalDirectory;
+        this.syncOnCommit = syncOnCommit;
+        this.journal = new StockJournal(journalDirectory, replay());
+
+        FunctionCounter.builder("inventix.stock.ledger.reservations", accepted, LongAdder::sum)
+                .tag("result", "accepted").register(meterRegistry);
+        FunctionCounter.builder("inventix.stock.ledger.reservations", rejected, LongAdder::sum)
+                .tag("result", "rejected").register(meterRegistry);
+    }
+
+    /**
+     * Takes {@code quantity} units if that many are available.
+     *
+     * @return false if fewer than {@code quantity} units are available
+     * @throws ProductNotFoundException if the product does not exist
+     */
+    public boolean reserve(long productId, int quantity) {
+        Slot slot = slot(productId);
+        flushLock.readLock().lock();
+        try {
+            long available;
+            do {
+                available = slot.available.get();
+                if (available < quantity) {
+                    rejected.increment();
+                    return false;
+                }
+            } while (!slot.available.compareAndSet(available, available - quantity));
+            record(productId, slot, -quantity);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+        accepted.increment();
+        // Undo the reservation if the order that took it rolls back
+        onRollback(() -> release(productId, quantity));
+        return true;
+    }
+
+    /**
+     * Returns {@code quantity} units to the product's stock.
+     *
+     * @throws ProductNotFoundException if the product does not exist
+     */
+    public void release(long productId, int quantity) {
+        adjust(productId, quantity);
+        onRollback(() -> adjust(productId, -quantity));
+    }
+
+    /**
+     * Sets the available quantity outright, for catalog edits.
+     */
+    public void set(long productId, int quantity) {
+        Slot slot = slot(productId);
+        flushLock.readLock().lock();
+        try {
+            long previous = slot.available.getAndSet(quantity);
+            record(productId, slot, quantity - previous);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public long available(long productId) {
+        return slot(productId).available.get();
+    }
+
+    /**
+     * Drops the product's counter, for deleted products. Any unflushed delta is discarded.
+     */
+    public void forget(long productId) {
+        slots.remove(productId);
+    }
+
+    /**
+     * Writes the net delta of every product changed since the last flush, and the journal
+     * position they cover, in one transaction. Journal segments are deleted after the commit.
+     */
+    @Scheduled(fixedDelayString = "${inventix.stock.ledger.flush-interval-ms:100}")
+    public void flush() {
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        long throughSequence;
+        List<Path> segments;
+        flushLock.writeLock().lock();
+        try {
+            throughSequence = journal.lastSequence();
+            slots.forEach((productId, slot) -> {
+                long delta = slot.pending.getAndSet(0);
+                if (delta != 0) {
+                    deltas.put(productId, delta);
+                }
+            });
+            segments = journal.rollOver();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (deltas.isEmpty() && segments.isEmpty()) {
+            return;
+        }
+        try {
+            apply(deltas, throughSequence);
+        } catch (RuntimeException e) {
+            // Hand the deltas back; their journal segments are kept until a flush succeeds
+            deltas.forEach((productId, delta) -> {
+                Slot slot = slots.get(productId);
+                if (slot != null) {
+                    slot.pending.addAndGet(delta);
+                }
+            });
+            throw e;
+        }
+        StockJournal.delete(segments);
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+        journal.close();
+    }
+
+    private void adjust(long productId, long delta) {
+        Slot slot = slot(productId);
+        flushLock.readLock().lock();
+        try {
+            slot.available.addAndGet(delta);
+            record(productId, slot, delta);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    private void record(long productId, Slot slot, long delta) {
+        long sequence = journal.append(productId, delta);
+        slot.pending.addAndGet(delta);
+        if (syncOnCommit && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    journal.sync(sequence);
+                }
+            });
+        }
+    }
+
+    private static void onRollback(Runnable compensation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        compensation.run();
+                    }
+                }
+            });
+        }
+    }
+
+    private Slot slot(long productId) {
+        return slots.computeIfAbsent(productId, id -> {
+            List<Integer> quantity = jdbcTemplate.queryForList("SELECT quantity FROM products WHERE id = ?", Integer.class, id);
+            if (quantity.isEmpty()) {
+                throw new ProductNotFoundException("Product not found with id: " + id);
+            }
+            return new Slot(quantity.get(0));
+        });
+    }
+
+    private void apply(Map<Long, Long> deltas, long throughSequence) {
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.forEach((productId, delta) -> updates.add(new Object[]{delta, productId}));
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("UPDATE products SET quantity = quantity + ?, version = version + 1 WHERE id = ?", updates);
+            checkpointRepository.save(new StockLedgerCheckpoint(StockLedgerCheckpoint.SINGLETON_ID, throughSequence));
+        });
+    }
+
+    /**
+     * Applies journal records the last run did not checkpoint and returns the sequence to
+     * continue from.
+     */
+    private long replay() {
+        long checkpoint = checkpointRepository.findById(StockLedgerCheckpoint.SINGLETON_ID)
+                .map(StockLedgerCheckpoint::getLastSequence)
+                .orElse(0L);
+        List<long[]> records = StockJournal.read(journalDirectory, checkpoint);
+        List<Path> segments = StockJournal.segments(journalDirectory);
+        if (records.isEmpty()) {
+            StockJournal.delete(segments);
+            return checkpoint;
+        }
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        for (long[] record : records) {
+            deltas.merge(record[1], record[2], Long::sum);
+        }
+        long lastSequence = records.get(records.size() - 1)[0];
+        apply(deltas, lastSequence);
+        StockJournal.delete(segments);
+        log.info("Replayed {} stock journal records for {} products up to sequence {}",
+                records.size(), deltas.size(), lastSequence);
+        return lastSequence;
+    }
+
+    private static final class Slot {
+        final AtomicLong available;
+        // Net change not yet written to the database
+        final AtomicLong pending = new AtomicLong();
+
+        Slot(long available) {
+            this.available = new AtomicLong(available);
+        }
+    }
+}
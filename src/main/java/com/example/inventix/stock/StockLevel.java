@@ -0,0 +1,8 @@
+package com.example.inventix.stock;
+
+/**
+ * A product's available quantity, wherever its stock lives (row, buckets or ledger), and its
+ * reorder point ({@code null} for the configured default).
+ */
+public record StockLevel(Long productId, String sku, String name, int quantity, Integer reorderPoint) {
+}
@@ -0,0 +1,217 @@
+package com.example.inventix.stock;
+
+import com.example.inventix.model.StockMovement;
+import com.example.inventix.model.StockMovementReason;
+import com.example.inventix.model.StockSnapshot;
+import com.example.inventix.repository.StockMovementRepository;
+import com.example.inventix.repository.StockSnapshotRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only journal of every stock movement, built from {@link StockChangedEvent}s.
+ * <p>
+ * A transaction's movements are buffered when it commits and stamped with the commit time, so
+ * rolled-back reservations never appear. A scheduled flush, the only writer, inserts the buffer
+ * as JDBC batches and then snapshots each product that has gathered {@code snapshot-every}
+ * movements since its last snapshot. {@link #quantityAt} replays from the nearest snapshot, so
+ * its cost depends on the snapshot interval, not on the size of the journal. History is at most
+ * one flush interval behind, and movements still buffered when the process dies are lost.
+ * <p>
+ * Order item services call {@link #attribute} to link their movements to the item. A reservation
+ * made for several orders at once, as the intake does, stays unattributed.
+ */
+@Component
+public class StockMovementJournal {
+
+    private final StockMovementRepository movementRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int snapshotEvery;
+
+    private final Queue<StockMovement> pending = new ConcurrentLinkedQueue<>();
+    // Committers share the read lock while they stamp and buffer; a flush takes the write lock
+    // to cut the buffer, so every movement stamped before the cut is in this flush or an earlier one
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+    // Movements flushed per product since its last snapshot; only the flush touches it
+    private final Map<Long, Integer> sinceSnapshot = new HashMap<>();
+
+    @Autowired
+    public StockMovementJournal(StockMovementRepository movementRepository,
+                                StockSnapshotRepository snapshotRepository,
+                                TransactionTemplate transactionTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${inventix.stock.journal.snapshot-every:1000}") int snapshotEvery) {
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.snapshotEvery = snapshotEvery;
+        Gauge.builder("inventix.stock.journal.pending", pending, Queue::size).register(meterRegistry);
+    }
+
+    @EventListener
+    public void onStockChanged(StockChangedEvent event) {
+        StockMovementReason reason = event.quantity() != null ? StockMovementReason.ADJUSTED
+                : event.delta() < 0 ? StockMovementReason.RESERVED : StockMovementReason.RELEASED;
+        StockMovement movement = new StockMovement(null, event.productId(), reason, event.delta(), event.quantity(), null, null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionMovements().movements.add(movement);
+        } else {
+            buffer(List.of(movement));
+        }
+    }
+
+    /**
+     * Links the current transaction's not yet attributed movements of the product to an order
+     * item. Call it once the item has an id.
+     */
+    public void attribute(Long productId, Long orderItemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (StockMovement movement : transactionMovements().movements) {
+            if (movement.getProductId().equals(productId) && movement.getOrderItemId() == null) {
+                movement.setOrderItemId(orderItemId);
+            }
+        }
+    }
+
+    /**
+     * The product's stock level at {@code at}, or empty if the journal holds nothing for the
+     * product up to then.
+     */
+    public Optional<Integer> quantityAt(Long productId, LocalDateTime at) {
+        Optional<StockSnapshot> snapshot = snapshotRepository.findFirstByProductIdAndAsOfLessThanEqualOrderByAsOfDesc(productId, at);
+        List<StockMovement> movements = snapshot
+                .map(found -> movementRepository.findToReplay(productId, found.getAsOf(), at))
+                .orElseGet(() -> movementRepository.findToReplay(productId, at));
+        if (snapshot.isEmpty() && movements.isEmpty()) {
+            return Optional.empty();
+        }
+        int level = snapshot.map(StockSnapshot::getQuantity).orElse(0);
+        for (StockMovement movement : movements) {
+            level = movement.applyTo(level);
+        }
+        return Optional.of(level);
+    }
+
+    public List<StockMovement> movements(Long productId, LocalDateTime from, LocalDateTime to, int limit) {
+        return movementRepository.findByProductIdAndMovedAtBetweenOrderByMovedAtAscIdAsc(productId, from, to, Limit.of(limit));
+    }
+
+    /**
+     * Writes the buffered movements and the snapshots they make due in one transaction.
+     */
+    @Scheduled(fixedDelayString = "${inventix.stock.journal.flush-interval-ms:500}")
+    public synchronized void flush() {
+        List<StockMovement> batch = new ArrayList<>();
+        LocalDateTime cut;
+        flushLock.writeLock().lock();
+        try {
+            for (StockMovement movement; (movement = pending.poll()) != null; ) {
+                batch.add(movement);
+            }
+            cut = now();
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> counts = new HashMap<>();
+        batch.forEach(movement -> counts.merge(movement.getProductId(), 1, Integer::sum));
+        List<Long> due = counts.entrySet().stream()
+                .filter(entry -> sinceSnapshot.getOrDefault(entry.getKey(), 0) + entry.getValue() >= snapshotEvery)
+                .map(Map.Entry::getKey)
+                .toList();
+        // Later movements may share the cut's timestamp, so snapshots end just before it
+        LocalDateTime asOf = cut.minus(1, ChronoUnit.MICROS);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                movementRepository.saveAll(batch);
+                for (Long productId : due) {
+                    quantityAt(productId, asOf).ifPresent(quantity ->
+                            snapshotRepository.save(new StockSnapshot(null, productId, quantity, asOf)));
+                }
+            });
+        } catch (RuntimeException e) {
+            // Hand the movements back for the next flush
+            batch.forEach(movement -> movement.setId(null));
+            pending.addAll(batch);
+            throw e;
+        }
+        counts.forEach((productId, count) -> sinceSnapshot.merge(productId, count, Integer::sum));
+        due.forEach(sinceSnapshot::remove);
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    private void buffer(List<StockMovement> movements) {
+        flushLock.readLock().lock();
+        try {
+            LocalDateTime movedAt = now();
+            movements.forEach(movement -> movement.setMovedAt(movedAt));
+            pending.addAll(movements);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    // Truncated to the column's precision, so a stored timestamp never rounds past the cut
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private TransactionMovements transactionMovements() {
+        // Only the current transaction's synchronizations are visible, not those of a suspended one
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof TransactionMovements movements && movements.journal() == this) {
+                return movements;
+            }
+        }
+        TransactionMovements movements = new TransactionMovements();
+        TransactionSynchronizationManager.registerSynchronization(movements);
+        return movements;
+    }
+
+    private final class TransactionMovements implements TransactionSynchronization {
+
+        private final List<StockMovement> movements = new ArrayList<>();
+
+        StockMovementJournal journal() {
+            return StockMovementJournal.this;
+        }
+
+        @Override
+        public void afterCommit() {
+            if (!movements.isEmpty()) {
+                buffer(movements);
+            }
+        }
+    }
+}
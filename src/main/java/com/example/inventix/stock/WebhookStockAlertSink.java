@@ -0,0 +1,43 @@
+package com.example.inventix.stock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Posts each alert as JSON to {@code inventix.alerts.webhook-url}. Delivery is best effort:
+ * a failed post is logged and not retried.
+ */
+@Component
+@ConditionalOnProperty(name = "inventix.alerts.sink", havingValue = "webhook")
+public class WebhookStockAlertSink implements StockAlertSink {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookStockAlertSink.class);
+
+    private final RestClient restClient;
+
+    @Autowired
+    public WebhookStockAlertSink(RestClient.Builder restClientBuilder,
+                                 @Value("${inventix.alerts.webhook-url}") String webhookUrl) {
+        this.restClient = restClientBuilder.baseUrl(webhookUrl).build();
+    }
+
+    @Override
+    public void send(StockAlert alert) {
+        try {
+            restClient.post()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(alert)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RestClientException e) {
+            log.warn("Could not deliver low-stock alert for product {}: {}", alert.productId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.inventix;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Client side of the load tests. Each client is a virtual thread that waits for a common start
+ * and then sends its requests back to back, seeded by its client number so runs repeat.
+ */
+public final class LoadRunner {
+
+    private LoadRunner() {
+    }
+
+    @FunctionalInterface
+    public interface Request {
+
+        /**
+         * Sends one request, returning whether it succeeded. A thrown exception counts as an error.
+         */
+        boolean send(SplittableRandom random) throws Exception;
+    }
+
+    public static Result run(int clients, int requestsPerClient, Request request) throws InterruptedException {
+        long[] latencies = new long[clients * requestsPerClient];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        long began;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                SplittableRandom random = new SplittableRandom(c);
+                executor.submit(() -> {
+                    start.await();
+                    for (int r = 0; r < requestsPerClient; r++) {
+                        long requestStart = System.nanoTime();
+                        try {
+                            if (!request.send(random)) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[next.getAndIncrement()] = System.nanoTime() - requestStart;
+                    }
+                    return null;
+                });
+            }
+            began = System.nanoTime();
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.MINUTES)).isTrue();
+        }
+        double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+        Arrays.sort(latencies);
+        return new Result(latencies, seconds, errors.get());
+    }
+
+    /**
+     * Client counts from a comma-separated system property, e.g. {@code -Pbenchmark.clients=1000,5000}.
+     */
+    public static int[] levels(String property, String defaults) {
+        return Arrays.stream(System.getProperty(property, defaults).split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim())).toArray();
+    }
+
+    /**
+     * Sorted request latencies in nanoseconds, the wall time they took and the failed requests.
+     */
+    public record Result(long[] latencies, double seconds, int errors) {
+
+        public double throughput() {
+            return latencies.length / seconds;
+        }
+
+        /**
+         * The latency at {@code p} (0 to 1) in milliseconds.
+         */
+        public double percentile(double p) {
+            return latencies[Math.min(latencies.length - 1, (int) (latencies.length * p))] / 1_000_000.0;
+        }
+
+        public Result plus(Result other) {
+            long[] merged = LongStream.concat(Arrays.stream(latencies), Arrays.stream(other.latencies)).sorted().toArray();
+            return new Result(merged, seconds + other.seconds, errors + other.errors);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.inventix;
+
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unsaved entities for tests, shaped the way clients send them.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static Product newProduct(String sku, int quantity) {
+        return newProduct(sku, "10", quantity);
+    }
+
+    public static Product newProduct(String sku, String price, int quantity) {
+        Product product = new Product();
+        product.setName("Product " + sku);
+        product.setSku(sku);
+        product.setPrice(new BigDecimal(price));
+        product.setQuantity(quantity);
+        return product;
+    }
+
+    public static Order newOrder(OrderItem... items) {
+        Order order = new Order();
+        order.setOrderItems(new ArrayList<>(List.of(items)));
+        return order;
+    }
+
+    /**
+     * An order line naming its product by id only, as a client would.
+     */
+    public static OrderItem newItem(Product product, int quantity) {
+        Product reference = new Product();
+        reference.setId(product.getId());
+        OrderItem item = new OrderItem();
+        item.setProduct(reference);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
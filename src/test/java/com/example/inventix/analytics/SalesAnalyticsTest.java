@@ -0,0 +1,187 @@
+package com.example.inventix.analytics;
+
+import com.example.inventix.exception.InsufficientStockException;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.OrderStatus;
+import com.example.inventix.model.Product;
+import com.example.inventix.model.ProductDailySales;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductDailySalesRepository;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.repository.StockBucketRepository;
+import com.example.inventix.service.AnalyticsService;
+import com.example.inventix.service.OrderItemService;
+import com.example.inventix.service.OrderService;
+import com.example.inventix.service.ProductService;
+import com.example.inventix.stock.StockBuckets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.example.inventix.TestFixtures.newItem;
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class SalesAnalyticsTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private SalesAggregator salesAggregator;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockBuckets stockBuckets;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private StockBucketRepository stockBucketRepository;
+
+    @Autowired
+    private ProductDailySalesRepository dailySalesRepository;
+
+    @AfterEach
+    void tearDown() {
+        salesAggregator.flush();
+        productRepository.findAll().forEach(product -> stockBuckets.forget(product.getId()));
+        dailySalesRepository.deleteAllInBatch();
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        stockBucketRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void itemChanges_ShouldRollUpIntoDailySales() {
+        Product product = productRepository.save(newProduct("SKU-1", "2.00", 100));
+        orderService.createBulkOrder(new Order(), List.of(newItem(product, 3)));
+        Order order = orderService.createOrder(new Order());
+        OrderItem item = orderItemService.createOrderItem(order.getId(), newItem(product, 5));
+        salesAggregator.flush();
+
+        assertThat(dailySales(product)).satisfies(sales -> {
+            assertThat(sales.getUnitsSold()).isEqualTo(8);
+            assertThat(sales.getRevenue()).isEqualByComparingTo("16.00");
+        });
+
+        orderItemService.updateOrderItem(item.getId(), newItem(product, 4));
+        salesAggregator.flush();
+        assertThat(dailySales(product).getUnitsSold()).isEqualTo(7);
+
+        orderItemService.deleteOrderItem(item.getId());
+        salesAggregator.flush();
+        assertThat(dailySales(product)).satisfies(sales -> {
+            assertThat(sales.getUnitsSold()).isEqualTo(3);
+            assertThat(sales.getRevenue()).isEqualByComparingTo("6.00");
+        });
+    }
+
+    @Test
+    void rolledBackOrders_ShouldNotCount() {
+        Product product = productRepository.save(newProduct("SKU-1", "2.00", 1));
+
+        assertThrows(InsufficientStockException.class,
+                () -> orderService.createBulkOrder(new Order(), List.of(newItem(product, 2))));
+        salesAggregator.flush();
+
+        assertThat(analyticsService.getDailySales(TODAY, TODAY, product.getId())).isEmpty();
+    }
+
+    @Test
+    void rebuildSales_ShouldRecomputeRowsFromOrderItems() {
+        Product first = productRepository.save(newProduct("SKU-1", "2.00", 100));
+        Product second = productRepository.save(newProduct("SKU-2", "5.00", 100));
+        orderService.createBulkOrder(new Order(), List.of(newItem(first, 3), newItem(second, 1)));
+        orderService.createBulkOrder(new Order(), List.of(newItem(first, 2)));
+        salesAggregator.flush();
+        List<ProductDailySales> maintained = analyticsService.getDailySales(TODAY, TODAY, null);
+        dailySalesRepository.deleteAllInBatch();
+
+        assertThat(analyticsService.rebuildSales()).isEqualTo(2);
+
+        assertThat(analyticsService.getDailySales(TODAY, TODAY, null))
+                .usingRecursiveComparison()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(maintained);
+    }
+
+    @Test
+    void getTopProducts_ShouldRankByUnitsSold() {
+        Product slow = productRepository.save(newProduct("SKU-SLOW", "1.00", 100));
+        Product fast = productRepository.save(newProduct("SKU-FAST", "1.00", 100));
+        orderService.createBulkOrder(new Order(), List.of(newItem(slow, 1), newItem(fast, 9)));
+        salesAggregator.flush();
+
+        assertThat(analyticsService.getTopProducts(TODAY.minusDays(7), TODAY, 1))
+                .extracting(ProductSales::productId)
+                .containsExactly(fast.getId());
+    }
+
+    @Test
+    void getRevenueByStatus_ShouldSumOrderTotals() {
+        Product product = productRepository.save(newProduct("SKU-1", "2.00", 100));
+        orderService.createBulkOrder(pending(), List.of(newItem(product, 1)));
+        Order shipped = orderService.createBulkOrder(pending(), List.of(newItem(product, 2)));
+        orderService.updateOrderStatus(shipped.getId(), OrderStatus.SHIPPED);
+        orderService.createBulkOrder(pending(), List.of(newItem(product, 3)));
+
+        assertThat(analyticsService.getRevenueByStatus())
+                .usingRecursiveComparison()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .ignoringCollectionOrder()
+                .isEqualTo(List.of(
+                        new StatusRevenue(OrderStatus.PENDING, 2L, new BigDecimal("8.00")),
+                        new StatusRevenue(OrderStatus.SHIPPED, 1L, new BigDecimal("4.00"))));
+    }
+
+    @Test
+    void getLowStockProducts_ShouldCountBucketedStock() {
+        productRepository.save(newProduct("SKU-LOW", "1.00", 3));
+        productRepository.save(newProduct("SKU-PLENTY", "1.00", 50));
+        Product bucketed = productRepository.save(newProduct("SKU-BUCKETED", "1.00", 40));
+        productService.setStockBuckets(bucketed.getId(), 4);
+
+        assertThat(analyticsService.getLowStockProducts(10))
+                .extracting(LowStockProduct::sku, LowStockProduct::quantity)
+                .containsExactly(tuple("SKU-LOW", 3L));
+    }
+
+    private ProductDailySales dailySales(Product product) {
+        return dailySalesRepository.findById(new ProductDailySales.Key(product.getId(), TODAY)).orElseThrow();
+    }
+
+    private static Order pending() {
+        Order order = new Order();
+        order.setStatus(OrderStatus.PENDING);
+        return order;
+    }
+}
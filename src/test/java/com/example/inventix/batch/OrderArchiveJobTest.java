@@ -0,0 +1,165 @@
+package com.example.inventix.batch;
+
+import com.example.inventix.model.OrderStatus;
+import com.example.inventix.service.OrderArchiveService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "inventix.archive.chunk-size=7")
+class OrderArchiveJobTest {
+
+    // Seeded ids sit far above the sequences so they never collide with entity inserts
+    private static final long ID_OFFSET = 1_000_000_000L;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long productId;
+
+    @BeforeEach
+    void setUp() {
+        productId = ID_OFFSET;
+        jdbcTemplate.update("INSERT INTO products (id, name, sku, price, quantity) VALUES (?, 'Archived Product', 'SKU-ARCHIVE', 10, 0)",
+                productId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Delete in id ranges: one DELETE over a million rows exhausts H2's in-memory undo log
+        for (String table : new String[]{"order_item", "orders", "order_item_archive", "orders_archive"}) {
+            String column = table.startsWith("order_item") ? "order_id" : "id";
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + column + ") FROM " + table, Long.class);
+            for (long upTo = ID_OFFSET + 100_000; maxId != null && upTo - 100_000 < maxId; upTo += 100_000) {
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE " + column + " <= ?", upTo);
+            }
+        }
+        jdbcTemplate.update("DELETE FROM products WHERE id = ?", productId);
+    }
+
+    @Test
+    void archiveOrders_ShouldMoveOnlyTerminalOrdersOlderThanCutoff() {
+        LocalDateTime now = LocalDateTime.now();
+        // 100 orders cycling through every status, half of them created before the cutoff
+        seedOrders(100, 2, now.minusDays(30), now.plusDays(1));
+
+        OrderArchiveResult result = orderArchiveService.archiveOrders(now, 4);
+
+        // Statuses cycle PENDING, SHIPPED, DELIVERED, CANCELLED and the first 50 are old
+        assertThat(result.status()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(result.partitions()).isEqualTo(4);
+        assertThat(result.archivedOrders()).isEqualTo(24);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class)).isEqualTo(76);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders_archive", Long.class)).isEqualTo(24);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_item_archive", Long.class)).isEqualTo(48);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_item i WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = i.order_id)",
+                Long.class)).isZero();
+        assertThat(countOrders("status IN (2, 3) AND created_at < ?", now)).isZero();
+    }
+
+    @Test
+    void archiveOrders_ShouldCompleteWithoutPartitions_WhenNothingIsArchivable() {
+        LocalDateTime now = LocalDateTime.now();
+        seedOrders(10, 1, now.plusDays(1), now.plusDays(1));
+
+        OrderArchiveResult result = orderArchiveService.archiveOrders(now, 4);
+
+        assertThat(result.status()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(result.archivedOrders()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class)).isEqualTo(10);
+    }
+
+    @Test
+    void archiveOrders_ShouldRejectThreadCountsOutsideConfiguredRange() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThatThrownBy(() -> orderArchiveService.archiveOrders(now, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> orderArchiveService.archiveOrders(now, 10_000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Archives the terminal half of 500k old orders and compares a hot-table lookup of PENDING orders before and
+     * after, then reports archive throughput with 1, 2 and 4 partitions on fresh data.
+     */
+    @Test
+    @Tag("benchmark")
+    void archiveOrders_ShouldShrinkHotTableAndScaleWithThreads() {
+        int orders = Integer.getInteger("benchmark.orders", 500_000);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int threads : new int[]{1, 2, 4}) {
+            seedOrders(orders, 1, now.minusDays(30), now.minusDays(30));
+            double before = pendingScanMillis();
+            long start = System.nanoTime();
+            OrderArchiveResult result = orderArchiveService.archiveOrders(now.plusSeconds(threads), threads);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            double after = pendingScanMillis();
+
+            System.out.printf("%d thread(s): archived %d orders in %.1f s (%.0f orders/s); pending scan %.1f ms -> %.1f ms%n",
+                    threads, result.archivedOrders(), seconds, result.archivedOrders() / seconds, before, after);
+            assertThat(result.status()).isEqualTo(BatchStatus.COMPLETED);
+            assertThat(result.archivedOrders()).isEqualTo(orders / 2);
+            tearDown();
+            setUp();
+        }
+    }
+
+    private double pendingScanMillis() {
+        int runs = 50;
+        // Vary the bound on each run so H2 cannot answer from its result cache
+        for (int i = 0; i < runs; i++) {
+            pendingTotal(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            pendingTotal(runs + i);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / runs;
+    }
+
+    private void pendingTotal(int run) {
+        jdbcTemplate.queryForObject("SELECT SUM(total_amount) FROM orders WHERE status = ? AND total_amount > ?",
+                BigDecimal.class, OrderStatus.PENDING.ordinal(), -run);
+    }
+
+    /**
+     * Inserts {@code count} orders with {@code itemsPerOrder} items each. Statuses cycle through
+     * every persisted {@link OrderStatus} (QUEUED only ever lives in the intake); the first half
+     * is created at {@code oldCreatedAt}, the rest at {@code newCreatedAt}.
+     */
+    private void seedOrders(int count, int itemsPerOrder, LocalDateTime oldCreatedAt, LocalDateTime newCreatedAt) {
+        int statuses = OrderStatus.CANCELLED.ordinal() + 1;
+        for (long from = 0; from < count; from += 100_000) {
+            long to = Math.min(count, from + 100_000) - 1;
+            jdbcTemplate.update("INSERT INTO orders (id, status, total_amount, created_at, updated_at) " +
+                            "SELECT ? + X, MOD(X, ?), 10, CASEWHEN(X < ?, ?, ?), CURRENT_TIMESTAMP FROM SYSTEM_RANGE(?, ?)",
+                    ID_OFFSET, statuses, count / 2, oldCreatedAt, newCreatedAt, from, to);
+            for (int item = 0; item < itemsPerOrder; item++) {
+                jdbcTemplate.update("INSERT INTO order_item (id, order_id, product_id, quantity, price_per_unit, subtotal) " +
+                                "SELECT ? + X * ? + ?, ? + X, ?, 1, 10, 10 FROM SYSTEM_RANGE(?, ?)",
+                        ID_OFFSET, itemsPerOrder, item, ID_OFFSET, productId, from, to);
+            }
+        }
+    }
+
+    private long countOrders(String where, Object... args) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE " + where, Long.class, args);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.inventix.batch;
+
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.service.ProductImportService;
+import com.example.inventix.service.ProductService;
+import com.example.inventix.stock.StockBuckets;
+import com.example.inventix.stock.StockMovementJournal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "inventix.import.skip-limit=2")
+class ProductImportJobTest {
+
+    private static final String HEADER = "sku,name,description,price,quantity";
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @TempDir
+    private static Path tempDir;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockBuckets stockBuckets;
+
+    @Autowired
+    private StockMovementJournal stockMovementJournal;
+
+    @DynamicPropertySource
+    static void importDirectory(DynamicPropertyRegistry registry) {
+        registry.add("inventix.import.directory", tempDir::toString);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.queryForList("SELECT id FROM products WHERE stock_buckets > 0", Long.class).forEach(stockBuckets::forget);
+        jdbcTemplate.update("DELETE FROM stock_buckets");
+        stockMovementJournal.flush();
+        // Delete in id ranges: one DELETE over a million rows exhausts H2's in-memory undo log
+        for (String table : new String[]{"stock_movements", "stock_snapshots", "outbox_events", "products"}) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            for (long upTo = 100_000; maxId != null && upTo - 100_000 < maxId; upTo += 100_000) {
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE id <= ?", upTo);
+            }
+        }
+    }
+
+    @Test
+    void importProducts_ShouldUpsertBySkuAndReportSkippedRows() throws IOException {
+        Product existing = new Product();
+        existing.setSku("SKU-1");
+        existing.setName("Old Name");
+        existing.setPrice(BigDecimal.ONE);
+        existing.setQuantity(1);
+        productRepository.save(existing);
+
+        Path csv = Files.writeString(tempDir.resolve("products.csv"), String.join("\n",
+                HEADER,
+                "SKU-1,New Name,Updated,12.50,40",
+                "SKU-2,Second,New product,3.00,7",
+                "SKU-3,Third,Bad price,abc,1",
+                "SKU-4,,Missing name,1.00,1",
+                "SKU-5,Fifth,,2.00,0"));
+
+        ProductImportResult result = productImportService.importProducts(csv.getFileName().toString(), LocalDate.now());
+
+        assertThat(result.status()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(result.writeCount()).isEqualTo(3);
+        assertThat(result.skippedUnparseable()).isEqualTo(1);
+        assertThat(result.skippedInvalid()).isEqualTo(1);
+        assertThat(productRepository.count()).isEqualTo(3);
+        Product updated = productRepository.findBySku("SKU-1").orElseThrow();
+        assertThat(updated.getId()).isEqualTo(existing.getId());
+        assertThat(updated.getName()).isEqualTo("New Name");
+        assertThat(updated.getQuantity()).isEqualTo(40);
+
+        // Imported levels are journaled like any other adjustment
+        stockMovementJournal.flush();
+        Long created = productRepository.findBySku("SKU-2").orElseThrow().getId();
+        assertThat(stockMovementJournal.quantityAt(updated.getId(), LocalDateTime.now())).contains(40);
+        assertThat(stockMovementJournal.quantityAt(created, LocalDateTime.now())).contains(7);
+    }
+
+    @Test
+    void importProducts_ShouldResumeFromLastCommittedChunk_WhenRestarted() throws IOException {
+        // Rows 2001-2003 have no name: the third skip exceeds the limit and fails the third chunk
+        Path csv = tempDir.resolve("restart.csv");
+        writeCsv(csv, 3_000, i -> i > 2_000 && i <= 2_003 ? "" : "Product " + i);
+
+        ProductImportResult failed = productImportService.importProducts(csv.getFileName().toString(), LocalDate.now());
+
+        assertThat(failed.status()).isEqualTo(BatchStatus.FAILED);
+        assertThat(productRepository.count()).isEqualTo(2_000);
+
+        writeCsv(csv, 3_000, i -> "Product " + i);
+        ProductImportResult restarted = productImportService.importProducts(csv.getFileName().toString(), LocalDate.now());
+
+        assertThat(restarted.status()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(restarted.readCount()).isEqualTo(1_000);
+        assertThat(productRepository.count()).isEqualTo(3_000);
+    }
+
+    @Test
+    void importProducts_ShouldRefillBuckets_WhenProductStockIsBucketed() throws IOException {
+        Product bucketed = new Product();
+        bucketed.setSku("SKU-1");
+        bucketed.setName("Bucketed");
+        bucketed.setPrice(BigDecimal.ONE);
+        bucketed.setQuantity(12);
+        bucketed = productRepository.save(bucketed);
+        productService.setStockBuckets(bucketed.getId(), 4);
+
+        Path csv = Files.writeString(tempDir.resolve("bucketed.csv"), String.join("\n",
+                HEADER,
+                "SKU-1,Bucketed,Restocked,1.00,40"));
+        ProductImportResult result = productImportService.importProducts(csv.getFileName().toString(), LocalDate.now());
+
+        assertThat(result.status()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(productService.getStockLevel(bucketed.getId()).quantity()).isEqualTo(40);
+        Product imported = productRepository.findById(bucketed.getId()).orElseThrow();
+        assertThat(imported.getQuantity()).isZero();
+        assertThat(imported.getDescription()).isEqualTo("Restocked");
+    }
+
+    @Test
+    void importProducts_ShouldRejectPathsOutsideImportDirectory() {
+        String outside = tempDir.resolve("products.csv").toAbsolutePath().toString();
+
+        assertThatThrownBy(() -> productImportService.importProducts(outside, LocalDate.now()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productImportService.importProducts("../products.csv", LocalDate.now()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> productImportService.importProducts("nested/../../products.csv", LocalDate.now()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Reports import throughput for a large file (1M rows by default, -Pbenchmark.importRows to change).
+     */
+    @Test
+    @Tag("benchmark")
+    void importProducts_Throughput() throws IOException {
+        int rows = Integer.getInteger("benchmark.importRows", 1_000_000);
+        Path csv = tempDir.resolve("large.csv");
+        writeCsv(csv, rows, i -> "Product " + i);
+
+        long start = System.nanoTime();
+        ProductImportResult result = productImportService.importProducts(csv.getFileName().toString(), LocalDate.now());
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("imported %d rows in %.1f s: %.0f rows/s%n", result.writeCount(), seconds, rows / seconds);
+        assertThat(result.status()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(result.writeCount()).isEqualTo(rows);
+    }
+
+    private static void writeCsv(Path csv, int rows, IntFunction<String> name) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write(HEADER);
+            for (int i = 1; i <= rows; i++) {
+                writer.newLine();
+                writer.write("SKU-" + i + "," + name.apply(i) + ",Imported product," + (i % 100) + ".99," + (i % 50));
+            }
+        }
+    }
+}
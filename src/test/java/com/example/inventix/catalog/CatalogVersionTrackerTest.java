@@ -0,0 +1,107 @@
+package com.example.inventix.catalog;
+
+import com.example.inventix.dto.ProductView;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.repository.ProductTombstoneRepository;
+import com.example.inventix.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CatalogVersionTrackerTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+        tombstoneRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void changes_ShouldAdvanceTheVersion_AndStampTheProduct() {
+        long before = productService.getCatalogVersion().version();
+
+        Product product = productService.createProduct(newProduct("CAT-1", 10));
+        CatalogVersion created = productService.getCatalogVersion();
+        assertThat(created.version()).isGreaterThan(before);
+        assertThat(productService.getProductCatalogVersion(product.getId())).get()
+                .extracting(CatalogVersion::version).isEqualTo(created.version());
+
+        productService.updateProduct(product.getId(), newProduct("CAT-1", 10));
+        CatalogVersion updated = productService.getProductCatalogVersion(product.getId()).orElseThrow();
+        assertThat(updated.version()).isGreaterThan(created.version()).isEqualTo(productService.getCatalogVersion().version());
+        assertThat(updated.lastModified()).isNotNull();
+    }
+
+    @Test
+    void stockMovements_ShouldLeaveTheVersionAndTheProductRowAlone() {
+        Product product = productService.createProduct(newProduct("CAT-6", 10));
+        CatalogVersion before = productService.getCatalogVersion();
+        Product row = productRepository.findById(product.getId()).orElseThrow();
+
+        productService.reserveStock(product.getId(), 3);
+        productService.releaseStock(product.getId(), 1);
+
+        assertThat(productService.getCatalogVersion().version()).isEqualTo(before.version());
+        Product reserved = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(reserved.getCatalogVersion()).isEqualTo(row.getCatalogVersion());
+        assertThat(reserved.getUpdatedAt()).isEqualTo(row.getUpdatedAt());
+        // Catalog reads leave the quantity to the stock endpoint
+        assertThat(productService.getProductView(product.getId()).quantity()).isNull();
+        assertThat(productService.getStockLevel(product.getId()).quantity()).isEqualTo(8);
+    }
+
+    @Test
+    void rolledBackChanges_ShouldNotMoveTheVersion() {
+        Product product = productService.createProduct(newProduct("CAT-2", 10));
+        CatalogVersion before = productService.getCatalogVersion();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.updateProduct(product.getId(), newProduct("CAT-2", 5));
+            status.setRollbackOnly();
+        });
+
+        assertThat(productService.getCatalogVersion().version()).isEqualTo(before.version());
+        assertThat(productService.getProductCatalogVersion(product.getId())).get()
+                .extracting(CatalogVersion::version).isEqualTo(before.version());
+    }
+
+    @Test
+    void getCatalogChanges_ShouldPageThroughChangesAndDeletions() {
+        long since = productService.getCatalogVersion().version();
+        Product first = productService.createProduct(newProduct("CAT-3", 10));
+        Product second = productService.createProduct(newProduct("CAT-4", 10));
+        Product third = productService.createProduct(newProduct("CAT-5", 10));
+        productService.deleteProduct(second.getId());
+
+        CatalogDelta page = productService.getCatalogChanges(since, Long.MAX_VALUE, 1);
+        assertThat(page.products()).extracting(ProductView::id).containsExactly(first.getId());
+        assertThat(page.deletedIds()).isEmpty();
+
+        CatalogDelta rest = productService.getCatalogChanges(page.version(), first.getId(), 10);
+        assertThat(rest.products()).extracting(ProductView::id).containsExactly(third.getId());
+        assertThat(rest.deletedIds()).containsExactly(second.getId());
+        assertThat(rest.version()).isEqualTo(productService.getCatalogVersion().version());
+
+        assertThat(productService.getCatalogChanges(rest.version(), Long.MAX_VALUE, 10).products()).isEmpty();
+    }
+}
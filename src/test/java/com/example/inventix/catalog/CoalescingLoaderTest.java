@@ -0,0 +1,160 @@
+package com.example.inventix.catalog;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CoalescingLoaderTest {
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Collection<Long>> reads = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        timer.shutdownNow();
+        threads.shutdownNow();
+    }
+
+    @Test
+    void lookupsOfOneId_ShouldShareTheReadInFlight() throws Exception {
+        CountDownLatch readStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingLoader<String> loader = loader(Duration.ofMillis(1), 100, id -> {
+            reads.add(List.of(id));
+            readStarted.countDown();
+            awaitQuietly(release);
+            return Optional.of("product " + id);
+        }, ids -> Map.of());
+
+        List<Future<Optional<String>>> lookups = new ArrayList<>();
+        lookups.add(threads.submit(() -> loader.find(7L)));
+        assertThat(readStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 10; i++) {
+            lookups.add(threads.submit(() -> loader.find(7L)));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced() < 10 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(coalesced()).isEqualTo(10);
+        release.countDown();
+
+        for (Future<Optional<String>> lookup : lookups) {
+            assertThat(lookup.get(5, TimeUnit.SECONDS)).contains("product 7");
+        }
+        assertThat(reads).hasSize(1);
+        assertThat(ratio()).isEqualTo(11);
+    }
+
+    @Test
+    void lookupsOfDifferentIds_ShouldBeReadInOneBatch() throws Exception {
+        // The window is far longer than the test: only a full batch gets read
+        CoalescingLoader<String> loader = loader(Duration.ofMinutes(1), 3, id -> Optional.empty(), ids -> {
+            reads.add(ids);
+            return Map.of(1L, "product 1", 2L, "product 2");
+        });
+
+        Future<Optional<String>> first = threads.submit(() -> loader.find(1L));
+        Future<Optional<String>> second = threads.submit(() -> loader.find(2L));
+        Future<Optional<String>> missing = threads.submit(() -> loader.find(3L));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).contains("product 1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).contains("product 2");
+        assertThat(missing.get(5, TimeUnit.SECONDS)).isEmpty();
+        assertThat(reads).singleElement().satisfies(ids -> assertThat(ids).containsExactlyInAnyOrder(1L, 2L, 3L));
+    }
+
+    @Test
+    void failedRead_ShouldFailEveryLookupInTheBatch() {
+        CoalescingLoader<String> loader = loader(Duration.ofMinutes(1), 2, id -> Optional.empty(), ids -> {
+            throw new IllegalStateException("database down");
+        });
+
+        Future<Optional<String>> first = threads.submit(() -> loader.find(1L));
+        Future<Optional<String>> second = threads.submit(() -> loader.find(2L));
+
+        for (Future<Optional<String>> lookup : List.of(first, second)) {
+            Exception e = assertThrows(Exception.class, () -> lookup.get(5, TimeUnit.SECONDS));
+            assertThat(e).hasRootCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void readFailingWithAnError_ShouldStillReleaseEveryLookup() throws Exception {
+        List<Integer> attempts = new CopyOnWriteArrayList<>();
+        CoalescingLoader<String> loader = loader(Duration.ofMinutes(1), 2, id -> Optional.of("product " + id), ids -> {
+            attempts.add(ids.size());
+            if (attempts.size() == 1) {
+                throw new StackOverflowError();
+            }
+            return Map.of(1L, "product 1", 2L, "product 2");
+        });
+
+        Future<Optional<String>> first = threads.submit(() -> loader.find(1L));
+        Future<Optional<String>> second = threads.submit(() -> loader.find(2L));
+        for (Future<Optional<String>> lookup : List.of(first, second)) {
+            Exception e = assertThrows(Exception.class, () -> lookup.get(5, TimeUnit.SECONDS));
+            assertThat(e).hasRootCauseInstanceOf(StackOverflowError.class);
+        }
+
+        // Nothing is left in flight: the same ids are read afresh
+        Future<Optional<String>> retried = threads.submit(() -> loader.find(1L));
+        Future<Optional<String>> other = threads.submit(() -> loader.find(2L));
+        assertThat(retried.get(5, TimeUnit.SECONDS)).contains("product 1");
+        assertThat(other.get(5, TimeUnit.SECONDS)).contains("product 2");
+    }
+
+    @Test
+    void disabled_ShouldReadEveryLookupOnItsOwn() {
+        CoalescingLoader<String> loader = new CoalescingLoader<>("test", id -> Optional.of("product " + id),
+                ids -> Map.of(), false, Duration.ofMillis(1).toNanos(), 100, timer, threads, meterRegistry);
+
+        assertThat(loader.find(1L)).contains("product 1");
+        assertThat(loader.find(1L)).contains("product 1");
+        assertThat(ratio()).isEqualTo(1);
+    }
+
+    private CoalescingLoader<String> loader(Duration window, int maxBatchSize,
+                                            Function<Long, Optional<String>> readOne,
+                                            Function<Collection<Long>, Map<Long, String>> readMany) {
+        return new CoalescingLoader<>("test", readOne, readMany, true, window.toNanos(), maxBatchSize,
+                timer, threads, meterRegistry);
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("inventix.products.lookup.coalesced").counter().count();
+    }
+
+    private double ratio() {
+        return meterRegistry.get("inventix.products.lookup.coalescing.ratio").gauge().value();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.inventix.config;
+
+import com.example.inventix.model.OrderStatus;
+import com.example.inventix.model.Product;
+import com.example.inventix.service.OrderService;
+import com.example.inventix.service.ProductService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OptimisticLockRetryListenerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticLockRetryListener listener = new OptimisticLockRetryListener(meterRegistry);
+
+    @Test
+    void productConflicts_ShouldBeTaggedBySku() throws Exception {
+        Product product = new Product();
+        product.setSku("SKU-HOT");
+        conflict(ProductService.class.getMethod("updateProduct", Long.class, Product.class), 1L, product);
+
+        assertThat(meterRegistry.get("inventix.optimistic.conflicts")
+                .tag("operation", "updateProduct").tag("key", "SKU-HOT").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void orderConflicts_ShouldShareOneMeterPerOperation() throws Exception {
+        for (long orderId = 1; orderId <= 50; orderId++) {
+            conflict(OrderService.class.getMethod("updateOrderStatus", Long.class, OrderStatus.class),
+                    orderId, OrderStatus.SHIPPED);
+        }
+
+        assertThat(meterRegistry.find("inventix.optimistic.conflicts").counters()).hasSize(1);
+        Counter conflicts = meterRegistry.get("inventix.optimistic.conflicts")
+                .tag("operation", "updateOrderStatus").tag("key", "none").counter();
+        assertThat(conflicts.count()).isEqualTo(50);
+    }
+
+    private void conflict(Method method, Object... arguments) {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(method);
+        when(invocation.getArguments()).thenReturn(arguments);
+        MethodInvocationRetryCallback<Object, RuntimeException> callback =
+                new MethodInvocationRetryCallback<>(invocation, method.getName()) {
+                    @Override
+                    public Object doWithRetry(RetryContext context) {
+                        return null;
+                    }
+                };
+        listener.onError(mock(RetryContext.class), callback, new OptimisticLockingFailureException("conflict"));
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.inventix.controller;
+
+import com.example.inventix.LoadRunner;
+import com.example.inventix.LoadRunner.Result;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.example.inventix.TestFixtures.newItem;
+import static com.example.inventix.TestFixtures.newOrder;
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load harness for the REST layer. Each {@link LoadRunner} client reads random orders (one
+ * entity-graph query each) back to back. Subclasses pick the request execution mode.
+ * <p>
+ * Sizes: {@code -Pbenchmark.clients=1000,5000,10000} and {@code -Pbenchmark.requestsPerClient=5}.
+ * Client and server share this JVM, so every connection costs two file descriptors.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+abstract class AbstractRestLoadTest {
+
+    private static final int ORDERS = 200;
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private final List<Long> orderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            products.add(productRepository.save(newProduct("SKU-LOAD-" + i, 1_000_000)));
+        }
+        for (int i = 0; i < ORDERS; i++) {
+            List<OrderItem> items = products.stream().map(product -> newItem(product, 1)).toList();
+            orderIds.add(orderService.createBulkOrder(newOrder(), items).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void readOrders_UnderConcurrentClients() throws Exception {
+        int requestsPerClient = Integer.getInteger("benchmark.requestsPerClient", 5);
+
+        // Warm up the server and the client before the measured levels
+        run(200, 20);
+        for (int clients : LoadRunner.levels("benchmark.clients", "1000,5000,10000")) {
+            Result result = run(clients, requestsPerClient);
+            System.out.printf("%-8s threads, %6d clients: %7.0f req/s, p50 %7.1f ms, p99 %7.1f ms, %d errors%n",
+                    virtualThreads ? "virtual" : "platform", clients, result.throughput(),
+                    result.percentile(0.50), result.percentile(0.99), result.errors());
+            assertThat(result.errors()).isLessThan(result.latencies().length);
+        }
+    }
+
+    private Result run(int clients, int requestsPerClient) throws InterruptedException {
+        // A shared client opens one pooled connection per in-flight request
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .executor(clientExecutor)
+                     .build()) {
+            return LoadRunner.run(clients, requestsPerClient,
+                    random -> client.send(request(random), HttpResponse.BodyHandlers.discarding()).statusCode() == 200);
+        }
+    }
+
+    private HttpRequest request(SplittableRandom random) {
+        Long orderId = orderIds.get(random.nextInt(orderIds.size()));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders/" + orderId))
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+}
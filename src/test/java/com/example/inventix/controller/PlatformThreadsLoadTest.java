@@ -0,0 +1,7 @@
+package com.example.inventix.controller;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadsLoadTest extends AbstractRestLoadTest {
+}
@@ -1,22 +1,49 @@
 package com.example.inventix.controller;
 
+import com.example.inventix.catalog.CatalogDelta;
+import com.example.inventix.catalog.CatalogVersion;
+import com.example.inventix.dto.ProductView;
+import com.example.inventix.exception.ProductVersionConflictException;
 import com.example.inventix.model.Product;
 import com.example.inventix.service.ProductService;
+import com.example.inventix.stock.StockLevel;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -35,6 +62,11 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService; // Mocked ProductService to control service layer behavior
 
+    @BeforeEach
+    void setUp() {
+        when(productService.getCatalogVersion()).thenReturn(new CatalogVersion(7L, Instant.parse("2024-05-01T10:00:00Z")));
+    }
+
     /**
      * Test for retrieving all products.
      * <p>
@@ -47,15 +79,162 @@ class ProductControllerTest {
     // @WithMockUser(username = "testuser", roles = {"USER"})
     void testGetAllProducts() throws Exception {
         // Arrange: Set up a sample product and mock the service's getAllProducts method
-        Product product = new Product(1L, "Sample Product", "SKU12345", "Description", BigDecimal.valueOf(99.99), 100, null, null);
-        when(productService.getAllProducts()).thenReturn(List.of(product));
+        ProductView product = new ProductView(1L, "Sample Product", "SKU12345", "Description", BigDecimal.valueOf(99.99), 100, null, null);
+        when(productService.getProductViewsAfter(0L, 100)).thenReturn(List.of(product));
 
         // Act & Assert: Perform GET request and validate the response
         mockMvc.perform(get("/api/products"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
                 .andExpect(jsonPath("$[0].name").value("Sample Product"));
     }
 
+    /**
+     * Test for keyset pagination.
+     * <p>
+     * A full page carries a Link header pointing after the last id it contains.
+     *
+     * @throws Exception if a request error occurs
+     */
+    @Test
+    void testGetProductsPage() throws Exception {
+        ProductView first = new ProductView(1L, "First", "SKU1", "Description", BigDecimal.ONE, 1, null, null);
+        ProductView second = new ProductView(2L, "Second", "SKU2", "Description", BigDecimal.ONE, 1, null, null);
+        when(productService.getProductViewsAfter(0L, 2)).thenReturn(List.of(first, second));
+
+        mockMvc.perform(get("/api/products").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, containsString("after=2")))
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    /**
+     * Test for conditional GETs of the product list.
+     * <p>
+     * Pages carry the catalog version as a weak ETag; revalidating with it answers 304 without
+     * reading any product.
+     *
+     * @throws Exception if a request error occurs
+     */
+    @Test
+    void testGetProductsNotModified() throws Exception {
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, "W/\"7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"7\""))
+                .andExpect(content().string(""));
+        verify(productService, never()).getProductViewsAfter(anyLong(), anyInt());
+
+        mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, "W/\"6\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"7\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED));
+    }
+
+    /**
+     * Test for conditional GETs of a single product, validated by its own catalog version.
+     *
+     * @throws Exception if a request error occurs
+     */
+    @Test
+    void testGetProductByIdNotModified() throws Exception {
+        when(productService.getProductCatalogVersion(1L))
+                .thenReturn(Optional.of(new CatalogVersion(3L, Instant.parse("2024-04-01T10:00:00Z"))));
+        when(productService.getProductView(1L))
+                .thenReturn(new ProductView(1L, "First", "SKU1", "Description", BigDecimal.ONE, 1, null, 3L));
+
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"3\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_MODIFIED_SINCE, "Mon, 01 Apr 2024 10:00:00 GMT"))
+                .andExpect(status().isNotModified());
+        verify(productService, never()).getProductView(1L);
+
+        mockMvc.perform(get("/api/products/1").header(HttpHeaders.IF_NONE_MATCH, "W/\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.catalogVersion").value(3));
+    }
+
+    /**
+     * Test for the catalog delta endpoint: a full page links to its continuation inside the
+     * version it ended in.
+     *
+     * @throws Exception if a request error occurs
+     */
+    @Test
+    void testGetCatalogChanges() throws Exception {
+        ProductView first = new ProductView(4L, "First", "SKU1", "Description", BigDecimal.ONE, 1, null, 5L);
+        ProductView second = new ProductView(9L, "Second", "SKU2", "Description", BigDecimal.ONE, 1, null, 6L);
+        when(productService.getCatalogChanges(3L, Long.MAX_VALUE, 2))
+                .thenReturn(new CatalogDelta(6L, List.of(first, second), List.of(2L)));
+
+        mockMvc.perform(get("/api/products/changes").param("since", "3").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, allOf(containsString("since=6"), containsString("after=9"))))
+                .andExpect(jsonPath("$.version").value(6))
+                .andExpect(jsonPath("$.products.length()").value(2))
+                .andExpect(jsonPath("$.deletedIds[0]").value(2));
+    }
+
+    /**
+     * Test for the NDJSON streaming mode.
+     * <p>
+     * Each product streamed by the service is written as its own JSON line.
+     *
+     * @throws Exception if a request error occurs
+     */
+    @Test
+    void testStreamProducts() throws Exception {
+        ProductView first = new ProductView(1L, "First", "SKU1", "Description", BigDecimal.ONE, 1, null, null);
+        ProductView second = new ProductView(2L, "Second", "SKU2", "Description", BigDecimal.ONE, 1, null, null);
+        doAnswer(invocation -> {
+            Consumer<ProductView> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(productService).streamAllProductViews(any());
+
+        MvcResult result = mockMvc.perform(get("/api/products/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).hasSize(2).allMatch(line -> line.startsWith("{\"id\":"));
+    }
+
+    /**
+     * Test for reading a product's live stock level.
+     * <p>
+     * The level is never cached, so the response carries no ETag.
+     *
+     * @throws Exception if a request error occurs
+     */
+    @Test
+    void testGetStockLevel() throws Exception {
+        when(productService.getStockLevel(1L)).thenReturn(new StockLevel(1L, "SKU1", "First", 42, 5));
+
+        mockMvc.perform(get("/api/products/1/stock"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.quantity").value(42));
+    }
+
+    /**
+     * Test for looking a product up by SKU.
+     *
+     * @throws Exception if a request error occurs
+     */
+    @Test
+    void testGetProductBySku() throws Exception {
+        Product product = new Product(1L, "Sample Product", "SKU12345", "Description", BigDecimal.valueOf(99.99), 100, null, null, null, 0, null, null);
+        when(productService.getProductBySku("SKU12345")).thenReturn(product);
+
+        mockMvc.perform(get("/api/products/sku/SKU12345"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
     /**
      * Test for creating a new product.
      * <p>
@@ -69,7 +248,7 @@ class ProductControllerTest {
     // @WithMockUser(username = "testuser", roles = {"USER"})
     void testCreateProduct() throws Exception {
         // Arrange: Set up a sample product and mock the service's createProduct method
-        Product product = new Product(1L, "Sample Product", "SKU12345", "Description", BigDecimal.valueOf(99.99), 100, null, null);
+        Product product = new Product(1L, "Sample Product", "SKU12345", "Description", BigDecimal.valueOf(99.99), 100, null, null, null, 0, null, null);
         when(productService.createProduct(Mockito.any(Product.class))).thenReturn(product);
 
         // Act & Assert: Perform POST request with JSON content and validate the response
@@ -80,4 +259,33 @@ class ProductControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.name").value("Sample Product"));
     }
+
+    /**
+     * Test for a conditional update.
+     * <p>
+     * The If-Match version reaches the service, and a product edited since that version
+     * answers 409 Conflict.
+     *
+     * @throws Exception if a request error occurs
+     */
+    @Test
+    void testUpdateProductIfMatch() throws Exception {
+        Product product = new Product(1L, "Sample Product", "SKU12345", "Description", BigDecimal.valueOf(99.99), 100, null, null, null, 0, null, null);
+        when(productService.updateProduct(eq(1L), argThat(details -> Long.valueOf(7L).equals(details.getCatalogVersion()))))
+                .thenReturn(product);
+        when(productService.updateProduct(eq(1L), argThat(details -> Long.valueOf(6L).equals(details.getCatalogVersion()))))
+                .thenThrow(new ProductVersionConflictException("Product 1 is at catalog version 7, not 6"));
+        String body = "{\"name\":\"Sample Product\",\"sku\":\"SKU12345\",\"price\":99.99,\"quantity\":100}";
+
+        mockMvc.perform(put("/api/products/1").header(HttpHeaders.IF_MATCH, "W/\"7\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+        mockMvc.perform(put("/api/products/1").header(HttpHeaders.IF_MATCH, "W/\"6\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict());
+        mockMvc.perform(put("/api/products/1").header(HttpHeaders.IF_MATCH, "*")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,155 @@
+package com.example.inventix.controller;
+
+import com.example.inventix.dto.ProductView;
+import com.example.inventix.repository.ProductRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reads the whole catalog page by page over HTTP in each wire format, with and without gzip,
+ * and reports the bytes sent and the time to fetch and decode every product. CPU per format
+ * without the network and database is measured by the {@code WireFormatBenchmark} JMH benchmark.
+ * <p>
+ * Sizes: {@code -Pbenchmark.products=100000} and {@code -Pbenchmark.rounds=5}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WireFormatLoadTest {
+
+    private static final int PAGE_SIZE = 1000;
+    private static final TypeReference<List<ProductView>> PRODUCTS = new TypeReference<>() {
+    };
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    private final int products = Integer.getInteger("benchmark.products", 100_000);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO products (id, name, sku, description, price, quantity, created_at, updated_at) " +
+                "SELECT X, CONCAT('Product ', MOD(X * 7919, 5000)), CONCAT('WIRE-', LPAD(CAST(X AS VARCHAR), 7, '0')), " +
+                "CONCAT('Description of product ', MOD(X * 104729, 5000), ' in category ', MOD(X, 50)), " +
+                "1 + MOD(X * 7919, 10000) / 100.0, MOD(X, 1000), TIMESTAMP '2024-01-01 00:00:00', " +
+                "TIMESTAMP '2024-01-01 00:00:00' FROM SYSTEM_RANGE(1, ?)", products);
+        // Ids resume after the seeded range, as in the JMH data seeder
+        jdbcTemplate.execute("ALTER SEQUENCE products_seq RESTART WITH " + (products + 50));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void readCatalog_InEachWireFormat() throws Exception {
+        int rounds = Integer.getInteger("benchmark.rounds", 5);
+        List<Format> formats = List.of(
+                new Format("application/json", objectMapper),
+                new Format("application/cbor", cborConverter.getObjectMapper()),
+                new Format("application/x-jackson-smile", smileConverter.getObjectMapper()));
+
+        long jsonBytes = 0;
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build()) {
+            for (Format format : formats) {
+                for (boolean gzip : new boolean[]{false, true}) {
+                    // The first read warms up the server, the client and the database
+                    readCatalog(client, format, gzip);
+                    long[] millis = new long[rounds];
+                    Read read = null;
+                    for (int round = 0; round < rounds; round++) {
+                        long start = System.nanoTime();
+                        read = readCatalog(client, format, gzip);
+                        millis[round] = (System.nanoTime() - start) / 1_000_000;
+                    }
+                    Arrays.sort(millis);
+                    System.out.printf("%-28s %-8s %,12d bytes, median %5d ms to read and decode %,d products%n",
+                            format.mediaType(), gzip ? "gzip" : "identity", read.bytes(), millis[rounds / 2], read.products());
+
+                    assertThat(read.products()).isEqualTo(products);
+                    if (format.mediaType().equals("application/json") && !gzip) {
+                        jsonBytes = read.bytes();
+                    } else {
+                        assertThat(read.bytes()).isLessThan(jsonBytes);
+                    }
+                }
+            }
+        }
+    }
+
+    private Read readCatalog(HttpClient client, Format format, boolean gzip) throws IOException, InterruptedException {
+        long bytes = 0;
+        int read = 0;
+        long after = 0;
+        while (true) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(
+                            "http://localhost:" + port + "/api/products?after=" + after + "&limit=" + PAGE_SIZE))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Accept", format.mediaType());
+            if (gzip) {
+                request.header("Accept-Encoding", "gzip");
+            }
+            HttpResponse<byte[]> response = client.send(request.GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.headers().firstValue("Content-Encoding")).isEqualTo(gzip ? Optional.of("gzip") : Optional.empty());
+            bytes += response.body().length;
+
+            InputStream body = new ByteArrayInputStream(response.body());
+            if (gzip) {
+                body = new GZIPInputStream(body);
+            }
+            List<ProductView> page = format.mapper().readValue(body, PRODUCTS);
+            read += page.size();
+            if (page.size() < PAGE_SIZE) {
+                return new Read(bytes, read);
+            }
+            after = page.get(page.size() - 1).id();
+        }
+    }
+
+    private record Format(String mediaType, ObjectMapper mapper) {
+    }
+
+    private record Read(long bytes, int products) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.inventix.controller;
+
+import com.example.inventix.dto.OrderView;
+import com.example.inventix.dto.ProductView;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The binary wire formats and response compression. MockMvc covers content negotiation; gzip
+ * is applied by the embedded server, which MockMvc bypasses, so it is checked over HTTP.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+class WireFormatTest {
+
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getProduct_ShouldAnswerInCbor_WhenAccepted() throws Exception {
+        Product product = productRepository.save(newProduct("WIRE-1", 5));
+
+        byte[] body = mockMvc.perform(get("/api/products/{id}", product.getId()).accept(CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ProductView view = cborConverter.getObjectMapper().readValue(body, ProductView.class);
+        assertThat(view.id()).isEqualTo(product.getId());
+        assertThat(view.sku()).isEqualTo("WIRE-1");
+    }
+
+    @Test
+    void getProducts_ShouldAnswerInSmile_WhenAccepted() throws Exception {
+        productRepository.saveAll(List.of(newProduct("WIRE-1", 5), newProduct("WIRE-2", 7)));
+
+        byte[] body = mockMvc.perform(get("/api/products").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<ProductView> page = smileConverter.getObjectMapper().readValue(body, new TypeReference<>() {
+        });
+        assertThat(page).extracting(ProductView::sku).containsExactly("WIRE-1", "WIRE-2");
+    }
+
+    @Test
+    void createBulkOrder_ShouldAcceptAndAnswerInCbor() throws Exception {
+        Product product = productRepository.save(newProduct("WIRE-1", 5));
+        byte[] request = cborConverter.getObjectMapper().writeValueAsBytes(Map.of("orderItems",
+                List.of(Map.of("product", Map.of("id", product.getId()), "quantity", 2))));
+
+        byte[] body = mockMvc.perform(post("/api/orders/bulk").contentType(CBOR).accept(CBOR).content(request))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        OrderView order = cborConverter.getObjectMapper().readValue(body, OrderView.class);
+        assertThat(order.totalAmount()).isEqualByComparingTo("20.00");
+        assertThat(order.orderItems()).hasSize(1);
+    }
+
+    @Test
+    void getProducts_ShouldBeGzipped_WhenTheClientAcceptsIt() throws Exception {
+        // Comfortably above server.compression.min-response-size
+        for (int i = 0; i < 50; i++) {
+            productRepository.save(newProduct("WIRE-" + i, i));
+        }
+
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://localhost:" + port + "/api/products?limit=100"))
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).contains("gzip");
+        List<ProductView> page = objectMapper.readValue(gunzip(response.body()), new TypeReference<>() {
+        });
+        assertThat(page).hasSize(50);
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.inventix.outbox;
+
+import com.example.inventix.exception.InsufficientStockException;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderStatus;
+import com.example.inventix.model.OutboxEvent;
+import com.example.inventix.model.OutboxEventType;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.OutboxEventRepository;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.service.OrderService;
+import com.example.inventix.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.inventix.TestFixtures.newItem;
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "inventix.outbox.publisher=memory",
+        "inventix.outbox.batch-size=2",
+        // The tests drive the relay themselves
+        "inventix.outbox.poll-interval-ms=3600000"
+})
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private InMemoryOutboxPublisher publisher;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = productService.createProduct(newProduct("SKU-1", 10));
+        relay.relay();
+        publisher.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.setFailing(false);
+        publisher.clear();
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        outboxEventRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void bulkOrder_ShouldBeRelayedInIdOrder_AndRemovedFromTheOutbox() throws Exception {
+        Order order = orderService.createBulkOrder(new Order(), List.of(newItem(product, 3)));
+        assertThat(outboxEventRepository.count()).isEqualTo(2);
+
+        assertThat(relay.relay()).isEqualTo(2);
+
+        List<OutboxEvent> published = publisher.published();
+        assertThat(published).extracting(OutboxEvent::getEventType)
+                .containsExactly(OutboxEventType.STOCK_CHANGED, OutboxEventType.ORDER_CREATED);
+        assertThat(published).extracting(OutboxEvent::getId).isSorted();
+        assertThat(outboxEventRepository.count()).isZero();
+
+        JsonNode stock = objectMapper.readTree(published.get(0).getPayload());
+        assertThat(stock.get("productId").asLong()).isEqualTo(product.getId());
+        assertThat(stock.get("delta").asInt()).isEqualTo(-3);
+
+        JsonNode created = objectMapper.readTree(published.get(1).getPayload());
+        assertThat(published.get(1).getAggregateId()).isEqualTo(order.getId());
+        assertThat(created.get("totalAmount").decimalValue()).isEqualByComparingTo("30");
+        assertThat(created.get("items")).hasSize(1);
+        assertThat(created.get("items").get(0).get("quantity").asInt()).isEqualTo(3);
+    }
+
+    @Test
+    void rolledBackChange_ShouldLeaveNoOutboxRows() {
+        assertThrows(InsufficientStockException.class,
+                () -> orderService.createBulkOrder(new Order(), List.of(newItem(product, 11))));
+
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void statusChange_ShouldCarryThePreviousStatus() throws Exception {
+        Order pending = new Order();
+        pending.setStatus(OrderStatus.PENDING);
+        Order order = orderService.createOrder(pending);
+        orderService.updateOrderStatus(order.getId(), OrderStatus.SHIPPED);
+
+        relay.relay();
+
+        OutboxEvent changed = publisher.published().get(1);
+        assertThat(changed.getEventType()).isEqualTo(OutboxEventType.ORDER_STATUS_CHANGED);
+        JsonNode payload = objectMapper.readTree(changed.getPayload());
+        assertThat(payload.get("previousStatus").asText()).isEqualTo("PENDING");
+        assertThat(payload.get("status").asText()).isEqualTo("SHIPPED");
+    }
+
+    @Test
+    void failedPublish_ShouldBeRedelivered() {
+        productService.reserveStock(product.getId(), 1);
+        productService.reserveStock(product.getId(), 1);
+        productService.reserveStock(product.getId(), 1);
+
+        publisher.setFailing(true);
+        assertThat(relay.relay()).isZero();
+        assertThat(outboxEventRepository.count()).isEqualTo(3);
+
+        publisher.setFailing(false);
+        // Drains past the batch size of 2
+        assertThat(relay.relay()).isEqualTo(3);
+        assertThat(publisher.published()).hasSize(3);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void lag_ShouldTrackTheOldestPendingEvent() {
+        outboxEventRepository.save(new OutboxEvent(null, "product", product.getId(), OutboxEventType.STOCK_CHANGED,
+                "{}", LocalDateTime.now().minusMinutes(1)));
+        publisher.setFailing(true);
+        relay.relay();
+        assertThat(meterRegistry.get("inventix.outbox.lag").gauge().value()).isGreaterThanOrEqualTo(60);
+
+        publisher.setFailing(false);
+        relay.relay();
+        assertThat(meterRegistry.get("inventix.outbox.lag").gauge().value()).isZero();
+        assertThat(meterRegistry.get("inventix.outbox.published").counter().count()).isPositive();
+    }
+}
@@ -2,21 +2,36 @@ package com.example.inventix.repository;
 
 import com.example.inventix.model.Product;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@DataJpaTest
+@DataJpaTest(showSql = false)
 class ProductRepositoryTest {
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Product product;
 
     @BeforeEach
@@ -60,4 +75,108 @@ class ProductRepositoryTest {
         boolean exists = productRepository.findById(savedProduct.getId()).isPresent();
         assertThat(exists).isFalse();
     }
+
+    @Test
+    void testFindBySku() {
+        Product savedProduct = productRepository.save(product);
+
+        assertThat(productRepository.findBySku("SKU12345")).map(Product::getId).contains(savedProduct.getId());
+        assertThat(productRepository.findBySku("UNKNOWN")).isEmpty();
+        assertThat(productRepository.findAllBySkuIn(List.of("SKU12345", "UNKNOWN"))).hasSize(1);
+    }
+
+    @Test
+    void testSkuIsUnique() {
+        productRepository.saveAndFlush(product);
+
+        Product duplicate = new Product();
+        duplicate.setName("Duplicate Product");
+        duplicate.setSku("SKU12345");
+
+        assertThatThrownBy(() -> productRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    void testFindByIdGreaterThan() {
+        List<Product> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Product newProduct = new Product();
+            newProduct.setName("Product " + i);
+            newProduct.setSku("SKU-" + i);
+            saved.add(productRepository.save(newProduct));
+        }
+
+        List<Product> page = productRepository.findByIdGreaterThanOrderByIdAsc(saved.get(1).getId(), Limit.of(2));
+
+        assertThat(page).extracting(Product::getId)
+                .containsExactly(saved.get(2).getId(), saved.get(3).getId());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testSaveAllInsertRate() {
+        int count = 20_000;
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product newProduct = new Product();
+            newProduct.setName("Product " + i);
+            newProduct.setSku("SKU-" + i);
+            newProduct.setPrice(BigDecimal.valueOf(9.99));
+            newProduct.setQuantity(10);
+            products.add(newProduct);
+        }
+
+        long start = System.nanoTime();
+        productRepository.saveAll(products);
+        productRepository.flush();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("inserted %d products: %.0f inserts/s%n", count, count / seconds);
+        assertThat(productRepository.count()).isEqualTo(count);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testFindBySkuLatency() {
+        int count = Integer.getInteger("benchmark.products", 1_000_000);
+        // Seed in auto-committed chunks; ids sit far above anything the sequence hands out
+        for (int from = 1; from <= count; from += 100_000) {
+            jdbcTemplate.update("INSERT INTO products (id, name, sku, price, quantity) " +
+                            "SELECT X + 1000000000, CONCAT('Product ', X), CONCAT('SKU-', X), 9.99, 10 " +
+                            "FROM SYSTEM_RANGE(?, ?)",
+                    from, Math.min(from + 99_999, count));
+        }
+
+        try {
+            int lookups = 20_000;
+            long[] nanos = new long[lookups];
+            for (int i = 0; i < lookups; i++) {
+                String sku = "SKU-" + ThreadLocalRandom.current().nextInt(1, count + 1);
+                long start = System.nanoTime();
+                assertThat(productRepository.findBySku(sku)).isPresent();
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+
+            List<String> batch = IntStream.range(0, 100)
+                    .mapToObj(i -> "SKU-" + ThreadLocalRandom.current().nextInt(1, count + 1)).toList();
+            int batches = 200;
+            long batchStart = System.nanoTime();
+            for (int i = 0; i < batches; i++) {
+                assertThat(productRepository.findAllBySkuIn(batch)).hasSize(100);
+            }
+            double batchMicros = (System.nanoTime() - batchStart) / 1_000.0 / batches;
+
+            System.out.printf("findBySku over %d products: p50 %d us, p99 %d us%n",
+                    count, nanos[lookups / 2] / 1_000, nanos[lookups * 99 / 100] / 1_000);
+            System.out.printf("findAllBySkuIn (100 skus) over %d products: %.0f us per batch%n", count, batchMicros);
+        } finally {
+            for (int from = 1; from <= count; from += 100_000) {
+                jdbcTemplate.update("DELETE FROM products WHERE id BETWEEN ? AND ?",
+                        from + 1_000_000_000L, from + 1_000_099_999L);
+            }
+        }
+    }
 }
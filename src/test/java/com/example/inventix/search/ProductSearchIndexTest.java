@@ -0,0 +1,101 @@
+package com.example.inventix.search;
+
+import com.example.inventix.TestFixtures;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class ProductSearchIndexTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndexLoader loader;
+
+    @AfterEach
+    void tearDown() {
+        // Through the service, so the shared index forgets the products too
+        productRepository.findAll().forEach(product -> productService.deleteProduct(product.getId()));
+    }
+
+    @Test
+    void search_ShouldFollowCreateUpdateAndDelete() {
+        Product product = productService.createProduct(newProduct("WAL-100", "Walnut Cutting Board", "End grain"));
+        assertThat(productService.searchProducts("walnut", 10)).extracting(Product::getId).containsExactly(product.getId());
+
+        productService.updateProduct(product.getId(), newProduct("WAL-100", "Maple Cutting Board", "End grain"));
+        assertThat(productService.searchProducts("walnut", 10)).isEmpty();
+        assertThat(productService.searchProducts("maple board", 10)).extracting(Product::getId).containsExactly(product.getId());
+
+        productService.deleteProduct(product.getId());
+        assertThat(productService.searchProducts("maple", 10)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesOfEveryToken_AndRankByField() {
+        Product mug = productService.createProduct(newProduct("MUG-1", "Ceramic Mug", "Stoneware, 350 ml"));
+        Product tumbler = productService.createProduct(newProduct("TUM-1", "Travel Tumbler", "Fits any ceramic mug lid"));
+
+        // A name match outweighs a description match
+        assertThat(productService.searchProducts("ceram", 10)).extracting(Product::getId)
+                .containsExactly(mug.getId(), tumbler.getId());
+        assertThat(productService.searchProducts("ceramic TRAV", 10)).extracting(Product::getId)
+                .containsExactly(tumbler.getId());
+        assertThat(productService.searchProducts("tum-1", 10)).extracting(Product::getId)
+                .containsExactly(tumbler.getId());
+        assertThat(productService.searchProducts("ceramic porcelain", 10)).isEmpty();
+        assertThat(productService.searchProducts("ceramic", 1)).hasSize(1);
+    }
+
+    @Test
+    void rebuild_ShouldIndexProductsWrittenBehindTheService() {
+        Product product = new Product();
+        product.setName("Linen Apron");
+        product.setSku("APR-7");
+        product.setPrice(BigDecimal.TEN);
+        product.setQuantity(5);
+        Product saved = productRepository.save(product);
+        assertThat(productService.searchProducts("linen", 10)).isEmpty();
+
+        loader.rebuild();
+
+        assertThat(productService.searchProducts("linen", 10)).extracting(Product::getId).containsExactly(saved.getId());
+    }
+
+    @Test
+    void changesDuringRebuild_ShouldWinOverTheRebuiltCopy() {
+        ProductSearchIndex index = new ProductSearchIndex(64, 1_000);
+        index.beginRebuild();
+        index.index(new ProductSearchDocument(1L, "Brass Hook", "HK-1", null));
+        index.remove(2L);
+        // Read before the changes above
+        index.load(List.of(new ProductSearchDocument(1L, "Steel Hook", "HK-1", null),
+                new ProductSearchDocument(2L, "Steel Rail", "RL-1", null),
+                new ProductSearchDocument(3L, "Steel Shelf", "SH-1", null)));
+        index.endRebuild();
+
+        assertThat(index.search("steel", 10)).extracting(ProductSearchHit::productId).containsExactly(3L);
+        assertThat(index.search("brass", 10)).extracting(ProductSearchHit::productId).containsExactly(1L);
+    }
+
+    private static Product newProduct(String sku, String name, String description) {
+        Product product = TestFixtures.newProduct(sku, 20);
+        product.setName(name);
+        product.setDescription(description);
+        return product;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.inventix.service;
+
+import com.example.inventix.LoadRunner;
+import com.example.inventix.LoadRunner.Result;
+import com.example.inventix.config.CacheConfig;
+import com.example.inventix.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Synthetic promotion: waves of concurrent clients look up a handful of hot products just after
+ * the products cache was cleared, so every early lookup misses. Reports the database statements
+ * the lookups cost, their rate, the coalescing ratio and the lookup latency. Subclasses turn
+ * coalescing on or off.
+ * <p>
+ * Sizes: {@code -Pbenchmark.clients=2000}, {@code -Pbenchmark.requestsPerClient=5},
+ * {@code -Pbenchmark.waves=5} and {@code -Pbenchmark.hotProducts=20}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+abstract class AbstractProductLookupLoadTest {
+
+    @Value("${inventix.products.lookup.coalescing-enabled}")
+    private boolean coalescing;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < Integer.getInteger("benchmark.hotProducts", 20); i++) {
+            productIds.add(productRepository.save(newProduct("SKU-PROMO-" + i, 1_000)).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void getProductById_UnderAPromotion() throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 2000);
+        int requestsPerClient = Integer.getInteger("benchmark.requestsPerClient", 5);
+        int waves = Integer.getInteger("benchmark.waves", 5);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Warm up the lookup path before measuring
+        runWave(200, 2);
+        double lookupsBefore = counter("inventix.products.lookup.requests");
+        double queriesBefore = counter("inventix.products.lookup.queries");
+        statistics.clear();
+        long began = System.nanoTime();
+        Result result = new Result(new long[0], 0, 0);
+        for (int wave = 0; wave < waves; wave++) {
+            result = result.plus(runWave(clients, requestsPerClient));
+        }
+        double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+        long statements = statistics.getPrepareStatementCount();
+        double lookups = counter("inventix.products.lookup.requests") - lookupsBefore;
+        double queries = counter("inventix.products.lookup.queries") - queriesBefore;
+
+        System.out.printf("%-10s %6d calls, %6.0f cache misses, %5.0f lookup queries (%5.1f misses/query), " +
+                        "%5d statements, %7.0f statements/s, p50 %6.2f ms, p99 %6.2f ms%n",
+                coalescing ? "coalesced" : "direct", result.latencies().length, lookups, queries, lookups / Math.max(1, queries),
+                statements, statements / seconds, result.percentile(0.50), result.percentile(0.99));
+
+        assertThat(result.latencies()).hasSize(waves * clients * requestsPerClient);
+        assertThat(result.errors()).isZero();
+        if (coalescing) {
+            assertThat(queries).isLessThan(lookups);
+        }
+    }
+
+    private Result runWave(int clients, int requestsPerClient) throws InterruptedException {
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).clear();
+        return LoadRunner.run(clients, requestsPerClient,
+                random -> productService.getProductById(productIds.get(random.nextInt(productIds.size()))) != null);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).tag("lookup", "product").counter().count();
+    }
+}
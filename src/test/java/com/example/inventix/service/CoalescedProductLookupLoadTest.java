@@ -0,0 +1,7 @@
+package com.example.inventix.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "inventix.products.lookup.coalescing-enabled=true")
+class CoalescedProductLookupLoadTest extends AbstractProductLookupLoadTest {
+}
@@ -0,0 +1,243 @@
+package com.example.inventix.service;
+
+import com.example.inventix.analytics.SalesAggregator;
+import com.example.inventix.exception.OrderIntakeFullException;
+import com.example.inventix.intake.OrderBatchProcessor;
+import com.example.inventix.intake.OrderTicket;
+import com.example.inventix.intake.QueuedOrder;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.OrderStatus;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.service.impl.OrderIntakeServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.inventix.TestFixtures.newItem;
+import static com.example.inventix.TestFixtures.newOrder;
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration tests for the asynchronous order intake and its micro-batch placement.
+ */
+@SpringBootTest(properties = {
+        "inventix.orders.intake.enabled=true",
+        "inventix.orders.intake.consumers=1"
+})
+class OrderIntakeServiceTest {
+
+    @Autowired
+    private OrderIntakeService orderIntakeService;
+
+    @Autowired
+    private OrderBatchProcessor orderBatchProcessor;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SalesAggregator salesAggregator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void submit_ShouldQueueThenPlaceTheOrder() throws InterruptedException {
+        Product product = productRepository.save(newProduct("SKU-1", 10));
+
+        OrderTicket ticket = orderIntakeService.submit(newOrder(newItem(product, 3)));
+
+        assertThat(ticket.status()).isEqualTo(OrderStatus.QUEUED);
+        OrderTicket placed = awaitPlaced(ticket.trackingId());
+        assertThat(placed.status()).isEqualTo(OrderStatus.PENDING);
+        assertThat(placed.orderId()).isNotNull();
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(7);
+    }
+
+    @Test
+    void getTicket_ShouldFollowTheOrderStatus_OncePlaced() throws InterruptedException {
+        Product product = productRepository.save(newProduct("SKU-1", 10));
+        OrderTicket placed = awaitPlaced(orderIntakeService.submit(newOrder(newItem(product, 1))).trackingId());
+
+        orderService.updateOrderStatus(placed.orderId(), OrderStatus.SHIPPED);
+
+        assertThat(orderIntakeService.getTicket(placed.trackingId()).status()).isEqualTo(OrderStatus.SHIPPED);
+    }
+
+    @Test
+    void submit_ShouldRejectAnOrderWithoutItems() {
+        assertThrows(IllegalArgumentException.class, () -> orderIntakeService.submit(newOrder()));
+    }
+
+    @Test
+    void process_ShouldPlaceTheRestOfTheBatch_WhenOneOrderIsShort() {
+        Product scarce = productRepository.save(newProduct("SKU-SCARCE", 10));
+        Product plenty = productRepository.save(newProduct("SKU-PLENTY", 100));
+        QueuedOrder first = queued(newOrder(newItem(scarce, 4), newItem(plenty, 1)));
+        QueuedOrder second = queued(newOrder(newItem(scarce, 4)));
+        QueuedOrder tooBig = queued(newOrder(newItem(scarce, 5), newItem(plenty, 2)));
+
+        Map<UUID, OrderTicket> outcomes = orderBatchProcessor.process(List.of(first, second, tooBig)).stream()
+                .collect(Collectors.toMap(OrderTicket::trackingId, Function.identity()));
+
+        assertThat(outcomes.get(first.trackingId()).status()).isEqualTo(OrderStatus.PENDING);
+        assertThat(outcomes.get(second.trackingId()).status()).isEqualTo(OrderStatus.PENDING);
+        assertThat(outcomes.get(tooBig.trackingId()).status()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(productRepository.findById(scarce.getId()).orElseThrow().getQuantity()).isEqualTo(2);
+        assertThat(productRepository.findById(plenty.getId()).orElseThrow().getQuantity()).isEqualTo(99);
+        assertThat(orderRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void process_ShouldKeepTheBatchPlaced_WhenARetryFailsUnexpectedly() {
+        Product plenty = productRepository.save(newProduct("SKU-PLENTY", 100));
+        Product scarce = productRepository.save(newProduct("SKU-SCARCE", 10));
+        QueuedOrder placed = queued(newOrder(newItem(plenty, 4)));
+        QueuedOrder retried = queued(newOrder(newItem(scarce, 11)));
+        OrderService failingOrderService = mock(OrderService.class);
+        when(failingOrderService.createBulkOrder(any(), any())).thenThrow(new IllegalStateException("database gone"));
+        OrderBatchProcessor processor = new OrderBatchProcessor(productService, failingOrderService, orderRepository,
+                salesAggregator, eventPublisher, transactionManager);
+
+        Map<UUID, OrderTicket> outcomes = processor.process(List.of(placed, retried)).stream()
+                .collect(Collectors.toMap(OrderTicket::trackingId, Function.identity()));
+
+        assertThat(outcomes.get(placed.trackingId()).status()).isEqualTo(OrderStatus.PENDING);
+        assertThat(outcomes.get(retried.trackingId()).status()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void process_ShouldCancelOrdersForUnknownProducts() {
+        Product product = productRepository.save(newProduct("SKU-1", 10));
+        Product unknown = new Product();
+        unknown.setId(-1L);
+        QueuedOrder known = queued(newOrder(newItem(product, 1)));
+        QueuedOrder missing = queued(newOrder(newItem(unknown, 1)));
+
+        Map<UUID, OrderTicket> outcomes = orderBatchProcessor.process(List.of(known, missing)).stream()
+                .collect(Collectors.toMap(OrderTicket::trackingId, Function.identity()));
+
+        assertThat(outcomes.get(known.trackingId()).status()).isEqualTo(OrderStatus.PENDING);
+        assertThat(outcomes.get(missing.trackingId()).status()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(outcomes.get(missing.trackingId()).message()).contains("-1");
+    }
+
+    @Test
+    void submit_ShouldRejectOrders_WhenTheQueueIsFull() throws InterruptedException {
+        Product product = productRepository.save(newProduct("SKU-1", 10));
+        // No consumers, so nothing leaves the two-slot queue
+        OrderIntakeServiceImpl intake = new OrderIntakeServiceImpl(orderBatchProcessor, orderRepository,
+                new SimpleMeterRegistry(), 2, 50, 0, Duration.ofMinutes(1));
+        intake.start();
+
+        intake.submit(newOrder(newItem(product, 1)));
+        intake.submit(newOrder(newItem(product, 1)));
+
+        assertThrows(OrderIntakeFullException.class, () -> intake.submit(newOrder(newItem(product, 1))));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void submit_ShouldOutpaceSynchronousOrders_UnderConcurrency() throws Exception {
+        int threads = 64;
+        int orders = Integer.getInteger("benchmark.orders", 5_000);
+        Product syncProduct = productRepository.save(newProduct("SKU-SYNC", orders));
+        Product asyncProduct = productRepository.save(newProduct("SKU-ASYNC", orders));
+
+        long start = System.nanoTime();
+        runConcurrently(threads, orders, () -> {
+            OrderItem item = newItem(syncProduct, 1);
+            orderService.createBulkOrder(newOrder(item), List.of(item));
+        });
+        double sync = orders / ((System.nanoTime() - start) / 1e9);
+
+        List<UUID> trackingIds = Collections.synchronizedList(new ArrayList<>());
+        start = System.nanoTime();
+        runConcurrently(threads, orders, () ->
+                trackingIds.add(orderIntakeService.submit(newOrder(newItem(asyncProduct, 1))).trackingId()));
+        double accepted = orders / ((System.nanoTime() - start) / 1e9);
+        for (UUID trackingId : trackingIds) {
+            awaitPlaced(trackingId);
+        }
+        double placed = orders / ((System.nanoTime() - start) / 1e9);
+
+        System.out.printf("synchronous:     %8.0f orders/s%n", sync);
+        System.out.printf("intake accepted: %8.0f orders/s%n", accepted);
+        System.out.printf("intake placed:   %8.0f orders/s%n", placed);
+        assertThat(productRepository.findById(asyncProduct.getId()).orElseThrow().getQuantity()).isZero();
+    }
+
+    private static void runConcurrently(int threads, int tasks, Runnable task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(task);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+    }
+
+    private OrderTicket awaitPlaced(UUID trackingId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            OrderTicket ticket = orderIntakeService.getTicket(trackingId);
+            if (ticket.status() != OrderStatus.QUEUED) {
+                return ticket;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Order " + trackingId + " was not placed in time");
+    }
+
+    private QueuedOrder queued(Order order) {
+        return new QueuedOrder(OrderTicket.queued(UUID.randomUUID()), order);
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.inventix.service;
+
+import com.example.inventix.exception.InsufficientStockException;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.inventix.TestFixtures.newItem;
+import static com.example.inventix.TestFixtures.newOrder;
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Contention tests for the stock reservation path of {@link OrderItemService}.
+ * <p>
+ * Many threads order the same product at once. The conditional decrement must hand out
+ * exactly the units on hand, never more.
+ */
+@SpringBootTest
+class OrderItemServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void createOrderItem_ShouldNeverOversell_WhenThreadsCompeteForTheSameProduct() throws Exception {
+        Product product = productRepository.save(newProduct("SKU-CONTENDED", 100));
+        Order order = orderRepository.save(newOrder());
+
+        AtomicInteger rejected = new AtomicInteger();
+        int accepted = runConcurrently(200, () -> {
+            try {
+                orderItemService.createOrderItem(order.getId(), newItem(product, 1));
+                return true;
+            } catch (InsufficientStockException e) {
+                rejected.incrementAndGet();
+                return false;
+            }
+        });
+
+        assertThat(accepted).isEqualTo(100);
+        assertThat(rejected.get()).isEqualTo(100);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+        assertThat(orderItemRepository.count()).isEqualTo(100);
+    }
+
+    /**
+     * Compares line items per second of the conditional decrement against the previous
+     * read-check-write sequence (order lookup, product lookup, {@code updateProduct}, item save).
+     */
+    @Test
+    @Tag("benchmark")
+    void createOrderItem_ShouldOutperformReadModifyWrite() throws Exception {
+        int lineItems = 4_000;
+
+        Product legacyProduct = productRepository.save(newProduct("SKU-LEGACY", lineItems / 2));
+        Order legacyOrder = orderRepository.save(newOrder());
+        long legacyStart = System.nanoTime();
+        int legacyAccepted = runConcurrently(lineItems, () -> legacyCreateOrderItem(legacyOrder.getId(), legacyProduct.getId()));
+        double legacyRate = lineItems / seconds(legacyStart);
+        int legacyOversold = legacyAccepted - lineItems / 2;
+
+        Product product = productRepository.save(newProduct("SKU-CONTENDED", lineItems / 2));
+        Order order = orderRepository.save(newOrder());
+        long start = System.nanoTime();
+        int accepted = runConcurrently(lineItems, () -> {
+            try {
+                orderItemService.createOrderItem(order.getId(), newItem(product, 1));
+                return true;
+            } catch (InsufficientStockException e) {
+                return false;
+            }
+        });
+        double rate = lineItems / seconds(start);
+
+        System.out.printf("read-modify-write:     %8.0f line items/s, oversold %d%n", legacyRate, legacyOversold);
+        System.out.printf("conditional decrement: %8.0f line items/s, oversold %d%n", rate, accepted - lineItems / 2);
+
+        assertThat(accepted).isEqualTo(lineItems / 2);
+        assertThat(rate).isGreaterThan(legacyRate);
+    }
+
+    private boolean legacyCreateOrderItem(Long orderId, Long productId) {
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        Product product = productService.getProductById(productId);
+        if (product.getQuantity() < 1) {
+            return false;
+        }
+        product.setQuantity(product.getQuantity() - 1);
+        productService.updateProduct(productId, product);
+
+        OrderItem item = newItem(product, 1);
+        item.setOrder(order);
+        item.setPricePerUnit(product.getPrice());
+        item.setSubtotal(product.getPrice());
+        orderItemRepository.save(item);
+        return true;
+    }
+
+    private int runConcurrently(int attempts, LineItemAttempt attempt) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        for (int i = 0; i < attempts; i++) {
+            executor.submit(() -> {
+                start.await();
+                if (attempt.run()) {
+                    accepted.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        return accepted.get();
+    }
+
+    private static double seconds(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000_000.0;
+    }
+
+    @FunctionalInterface
+    private interface LineItemAttempt {
+        boolean run();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.inventix.service;
+
+import com.example.inventix.exception.InsufficientStockException;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.inventix.TestFixtures.newItem;
+import static com.example.inventix.TestFixtures.newOrder;
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for {@link OrderService#createBulkOrder(Order, List)}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+class OrderServiceBulkOrderTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void createBulkOrder_ShouldReserveEveryLine_WhenStockIsSufficient() {
+        Product first = productRepository.save(newProduct("SKU-1", 10));
+        Product second = productRepository.save(newProduct("SKU-2", 10));
+
+        Order created = orderService.createBulkOrder(newOrder(),
+                List.of(newItem(first, 3), newItem(second, 4), newItem(first, 2)));
+
+        assertThat(created.getId()).isNotNull();
+        assertThat(orderItemRepository.count()).isEqualTo(3);
+        assertThat(productRepository.findById(first.getId()).orElseThrow().getQuantity()).isEqualTo(5);
+        assertThat(productRepository.findById(second.getId()).orElseThrow().getQuantity()).isEqualTo(6);
+    }
+
+    @Test
+    void createBulkOrder_ShouldRollBackEveryLine_WhenOneLineIsShort() {
+        Product plenty = productRepository.save(newProduct("SKU-1", 10));
+        Product scarce = productRepository.save(newProduct("SKU-2", 1));
+
+        assertThrows(InsufficientStockException.class, () -> orderService.createBulkOrder(newOrder(),
+                List.of(newItem(plenty, 5), newItem(scarce, 2))));
+
+        assertThat(orderRepository.count()).isZero();
+        assertThat(orderItemRepository.count()).isZero();
+        assertThat(productRepository.findById(plenty.getId()).orElseThrow().getQuantity()).isEqualTo(10);
+        assertThat(productRepository.findById(scarce.getId()).orElseThrow().getQuantity()).isEqualTo(1);
+    }
+
+    @Test
+    void createBulkOrder_ShouldRejectNonPositiveLines() {
+        Product product = productRepository.save(newProduct("SKU-1", 10));
+
+        assertThrows(IllegalArgumentException.class, () -> orderService.createBulkOrder(newOrder(),
+                List.of(newItem(product, 2), newItem(product, -5))));
+
+        assertThat(orderRepository.count()).isZero();
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(10);
+    }
+
+    /**
+     * Compares JDBC statements and latency of a 200-line order placed through the per-line
+     * {@code createOrderWithItems} loop and through {@code createBulkOrder}.
+     */
+    @Test
+    @Tag("benchmark")
+    void createBulkOrder_ShouldIssueFewerStatementsThanPerLineLoop() {
+        int lines = 200;
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            products.add(productRepository.save(newProduct("SKU-" + i, 1_000)));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Warm up both paths once so neither pays for class loading and statement caching
+        orderService.createOrderWithItems(newOrder(), newItems(products));
+        orderService.createBulkOrder(newOrder(), newItems(products));
+
+        statistics.clear();
+        long loopStart = System.nanoTime();
+        orderService.createOrderWithItems(newOrder(), newItems(products));
+        long loopMillis = (System.nanoTime() - loopStart) / 1_000_000;
+        long loopStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long bulkStart = System.nanoTime();
+        orderService.createBulkOrder(newOrder(), newItems(products));
+        long bulkMillis = (System.nanoTime() - bulkStart) / 1_000_000;
+        long bulkStatements = statistics.getPrepareStatementCount();
+
+        System.out.printf("per-line loop: %5d statements, %5d ms for %d lines%n", loopStatements, loopMillis, lines);
+        System.out.printf("bulk order:    %5d statements, %5d ms for %d lines%n", bulkStatements, bulkMillis, lines);
+
+        assertThat(bulkStatements).isLessThan(loopStatements);
+    }
+
+    private static List<OrderItem> newItems(List<Product> products) {
+        return products.stream().map(product -> newItem(product, 1)).toList();
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.inventix.service;
+
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the order read paths against N+1 loading: serializing the orders must take the same
+ * number of SQL statements whether there are a few orders or many.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn",
+        // Statement counts are global: keep background readers and writers out of them
+        "inventix.alerts.enabled=false",
+        "inventix.analytics.flush-interval-ms=3600000",
+        "inventix.stock.journal.flush-interval-ms=3600000",
+        "inventix.outbox.enabled=false"
+})
+class OrderServiceQueryCountTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        products = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSku("SKU-" + i);
+            product.setPrice(BigDecimal.TEN);
+            product.setQuantity(1_000);
+            products.add(productRepository.save(product));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getAllOrders_ShouldUseConstantStatements_AsOrdersGrow() {
+        createOrders(5);
+        long few = statementsToSerialize(orderService::getAllOrders);
+        createOrders(20);
+        long many = statementsToSerialize(orderService::getAllOrders);
+
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void getOrdersAfter_ShouldUseConstantStatements_AsOrdersGrow() {
+        createOrders(5);
+        long few = statementsToSerialize(() -> orderService.getOrdersAfter(0L, 100));
+        createOrders(20);
+        long many = statementsToSerialize(() -> orderService.getOrdersAfter(0L, 100));
+
+        assertThat(many).isEqualTo(few);
+    }
+
+    @Test
+    void getOrderById_ShouldLoadItemsAndProductsInOneStatement() {
+        Long orderId = createOrders(1).get(0).getId();
+
+        assertThat(statementsToSerialize(() -> orderService.getOrderById(orderId))).isEqualTo(1);
+        assertThat(statementsToSerialize(() -> orderItemService.getOrderItemsByOrderId(orderId))).isEqualTo(1);
+    }
+
+    @Test
+    void orderViews_ShouldUseTwoStatements_WhateverTheOrderCount() {
+        Long orderId = createOrders(1).get(0).getId();
+        assertThat(statementsToSerialize(() -> orderService.getOrderView(orderId))).isEqualTo(2);
+
+        createOrders(20);
+        assertThat(statementsToSerialize(() -> orderService.getOrderViewsAfter(0L, 100))).isEqualTo(2);
+    }
+
+    @Test
+    void orderView_ShouldCarryLineSummaries_NotWholeProducts() throws Exception {
+        Long orderId = createOrders(1).get(0).getId();
+
+        String json = objectMapper.writeValueAsString(orderService.getOrderView(orderId));
+
+        assertThat(json).contains("\"productName\":\"Product 0\"", "\"sku\":\"SKU-2\"")
+                .doesNotContain("\"product\":", "\"description\"", "\"version\"");
+    }
+
+    private long statementsToSerialize(Supplier<Object> read) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        // Serialize inside the transaction so any lazy association would still be loaded (and counted)
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                objectMapper.writeValueAsString(read.get());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Order> createOrders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setOrderItems(new ArrayList<>());
+            List<OrderItem> items = products.stream().map(product -> {
+                Product reference = new Product();
+                reference.setId(product.getId());
+                OrderItem item = new OrderItem();
+                item.setProduct(reference);
+                item.setQuantity(1);
+                return item;
+            }).toList();
+            orders.add(orderService.createBulkOrder(order, items));
+        }
+        return orders;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.inventix.service;
 
+import com.example.inventix.analytics.SalesAggregator;
 import com.example.inventix.exception.OrderNotFoundException;
 import com.example.inventix.model.Order;
 import com.example.inventix.model.OrderItem;
@@ -7,11 +8,13 @@ import com.example.inventix.model.OrderStatus;
 import com.example.inventix.model.Product;
 import com.example.inventix.repository.OrderRepository;
 import com.example.inventix.service.impl.OrderServiceImpl;
+import com.example.inventix.stock.StockMovementJournal;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -32,6 +35,15 @@ class OrderServiceTest {
     @Mock
     private OrderItemService orderItemService;
 
+    @Mock
+    private SalesAggregator salesAggregator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private StockMovementJournal stockMovementJournal;
+
     @InjectMocks
     private OrderServiceImpl orderService;
 
@@ -89,8 +101,8 @@ class OrderServiceTest {
             return order;
         });
 
-        // Mock findById to return the saved order
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(newOrder));
+        // Mock findWithItemsById to return the saved order
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(newOrder));
 
         // Mock createOrderItem to return the created item
         when(orderItemService.createOrderItem(1L, newItem)).thenReturn(newItem);
@@ -106,38 +118,38 @@ class OrderServiceTest {
 
     @Test
     void getOrderById_ShouldReturnOrder_WhenOrderExists() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(sampleOrder));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(sampleOrder));
 
         Order order = orderService.getOrderById(1L);
 
         assertNotNull(order);
         assertEquals(sampleOrder.getId(), order.getId());
-        verify(orderRepository, times(1)).findById(1L);
+        verify(orderRepository, times(1)).findWithItemsById(1L);
     }
 
     @Test
     void getOrderById_ShouldThrowException_WhenOrderDoesNotExist() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.empty());
 
         assertThrows(OrderNotFoundException.class, () -> orderService.getOrderById(1L));
-        verify(orderRepository, times(1)).findById(1L);
+        verify(orderRepository, times(1)).findWithItemsById(1L);
     }
 
     @Test
     void addOrderItems_ShouldAddItems_WhenCalledWithValidOrderAndItems() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(sampleOrder));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(sampleOrder));
         when(orderItemService.createOrderItem(anyLong(), any(OrderItem.class))).thenReturn(sampleItem);
 
         Order updatedOrder = orderService.addOrderItems(1L, List.of(sampleItem));
 
         assertNotNull(updatedOrder);
         verify(orderItemService, times(1)).createOrderItem(1L, sampleItem);
-        verify(orderRepository, times(1)).findById(1L);
+        verify(orderRepository, times(1)).findWithItemsById(1L);
     }
 
     @Test
     void deleteOrder_ShouldDeleteOrderAndRestoreStock_WhenOrderExists() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(sampleOrder));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(sampleOrder));
 
         orderService.deleteOrder(1L);
 
@@ -147,10 +159,10 @@ class OrderServiceTest {
 
     @Test
     void deleteOrder_ShouldThrowException_WhenOrderNotFound() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.empty());
 
         assertThrows(OrderNotFoundException.class, () -> orderService.deleteOrder(1L));
-        verify(orderRepository, times(1)).findById(1L);
+        verify(orderRepository, times(1)).findWithItemsById(1L);
         verify(orderRepository, never()).delete(any(Order.class));
     }
 
@@ -166,8 +178,8 @@ class OrderServiceTest {
         updatedItem.setQuantity(3);
         updatedOrder.setOrderItems(List.of(updatedItem));
 
-        // Mock findById to return the existing order
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(sampleOrder));
+        // Mock findWithItemsById to return the existing order
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(sampleOrder));
 
         // Mock createOrderItem to return the new item
         when(orderItemService.createOrderItem(1L, updatedItem)).thenReturn(updatedItem);
@@ -188,7 +200,7 @@ class OrderServiceTest {
         assertEquals(updatedItem.getId(), result.getOrderItems().get(0).getId(), "The order item ID should match the updated item.");
 
         // Verifications: Ensure mocks were invoked as expected
-        verify(orderRepository, times(1)).findById(1L);
+        verify(orderRepository, times(1)).findWithItemsById(1L);
         verify(orderItemService, times(1)).createOrderItem(1L, updatedItem);
         verify(orderRepository, times(1)).save(any(Order.class));
     }
@@ -196,26 +208,26 @@ class OrderServiceTest {
 
     @Test
     void updateOrder_ShouldThrowException_WhenOrderDoesNotExist() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.empty());
 
         assertThrows(OrderNotFoundException.class, () -> orderService.updateOrder(1L, new Order()));
-        verify(orderRepository, times(1)).findById(1L);
+        verify(orderRepository, times(1)).findWithItemsById(1L);
     }
 
     @Test
     void getAllOrders_ShouldReturnListOfOrders_WhenOrdersExist() {
-        when(orderRepository.findAll()).thenReturn(List.of(sampleOrder));
+        when(orderRepository.findAllWithItems()).thenReturn(List.of(sampleOrder));
 
         List<Order> orders = orderService.getAllOrders();
 
         assertNotNull(orders);
         assertEquals(1, orders.size());
-        verify(orderRepository, times(1)).findAll();
+        verify(orderRepository, times(1)).findAllWithItems();
     }
 
     @Test
     void updateOrderStatus_ShouldUpdateStatus_WhenOrderExists() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.of(sampleOrder));
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(sampleOrder));
         when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order order = invocation.getArgument(0);
             order.setStatus(OrderStatus.SHIPPED);
@@ -231,9 +243,9 @@ class OrderServiceTest {
 
     @Test
     void updateOrderStatus_ShouldThrowException_WhenOrderDoesNotExist() {
-        when(orderRepository.findById(1L)).thenReturn(Optional.empty());
+        when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.empty());
 
         assertThrows(OrderNotFoundException.class, () -> orderService.updateOrderStatus(1L, OrderStatus.SHIPPED));
-        verify(orderRepository, times(1)).findById(1L);
+        verify(orderRepository, times(1)).findWithItemsById(1L);
     }
 }
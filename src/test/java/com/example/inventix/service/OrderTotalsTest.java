@@ -0,0 +1,250 @@
+package com.example.inventix.service;
+
+import com.example.inventix.exception.InsufficientStockException;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.OrderStatus;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static com.example.inventix.TestFixtures.newItem;
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for the order totals kept current as items change.
+ */
+@SpringBootTest
+class OrderTotalsTest {
+
+    // Seeded ids sit far above the sequences so they never collide with entity inserts
+    private static final long ID_OFFSET = 1_000_000_000L;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        // Delete in id ranges: one DELETE over millions of rows exhausts H2's in-memory undo log
+        for (String table : new String[]{"order_item", "orders"}) {
+            String column = table.equals("order_item") ? "order_id" : "id";
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(" + column + ") FROM " + table, Long.class);
+            for (long upTo = ID_OFFSET + 100_000; maxId != null && upTo - 100_000 < maxId; upTo += 100_000) {
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE " + column + " <= ?", upTo);
+            }
+        }
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void itemChanges_ShouldKeepTheOrderTotalCurrent() {
+        Product cheap = productRepository.save(newProduct("SKU-1", "2.50", 100));
+        Product dear = productRepository.save(newProduct("SKU-2", "10.00", 100));
+        Order order = orderService.createOrder(new Order());
+
+        OrderItem first = orderItemService.createOrderItem(order.getId(), newItem(cheap, 4));
+        OrderItem second = orderItemService.createOrderItem(order.getId(), newItem(dear, 1));
+        assertThat(totalOf(order)).isEqualByComparingTo("20.00");
+
+        orderItemService.updateOrderItem(first.getId(), newItem(cheap, 2));
+        assertThat(totalOf(order)).isEqualByComparingTo("15.00");
+
+        orderItemService.deleteOrderItem(second.getId());
+        assertThat(totalOf(order)).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void createOrder_ShouldIgnoreAClientSuppliedTotal() {
+        Product product = productRepository.save(newProduct("SKU-1", "2.00", 100));
+        Order submitted = new Order();
+        submitted.setTotalAmount(new BigDecimal("999.00"));
+
+        Order order = orderService.createOrder(submitted);
+        assertThat(totalOf(order)).isEqualByComparingTo("0");
+
+        orderItemService.createOrderItem(order.getId(), newItem(product, 3));
+        assertThat(totalOf(order)).isEqualByComparingTo("6.00");
+    }
+
+    @Test
+    void updateOrder_ShouldReplaceTheItemsAndTheTotal() {
+        Product cheap = productRepository.save(newProduct("SKU-1", "2.00", 100));
+        Product dear = productRepository.save(newProduct("SKU-2", "10.00", 100));
+        Order order = orderService.createBulkOrder(new Order(), List.of(newItem(cheap, 5)));
+        Order replacement = new Order();
+        replacement.setOrderItems(List.of(newItem(dear, 2)));
+
+        Order updated = orderService.updateOrder(order.getId(), replacement);
+
+        assertThat(updated.getOrderItems()).singleElement()
+                .satisfies(item -> assertThat(item.getProduct().getId()).isEqualTo(dear.getId()));
+        assertThat(totalOf(order)).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void updateOrder_ShouldKeepTheOldItems_WhenANewItemCannotBePlaced() {
+        Product cheap = productRepository.save(newProduct("SKU-1", "2.00", 100));
+        Product scarce = productRepository.save(newProduct("SKU-2", "10.00", 1));
+        Order order = orderService.createBulkOrder(new Order(), List.of(newItem(cheap, 5)));
+        Order replacement = new Order();
+        replacement.setOrderItems(List.of(newItem(cheap, 1), newItem(scarce, 2)));
+
+        assertThrows(InsufficientStockException.class, () -> orderService.updateOrder(order.getId(), replacement));
+
+        assertThat(orderItemRepository.findAll()).singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(5));
+        assertThat(totalOf(order)).isEqualByComparingTo("10.00");
+        assertThat(productRepository.findById(cheap.getId()).orElseThrow().getQuantity()).isEqualTo(95);
+    }
+
+    @Test
+    void createBulkOrder_ShouldSetTheTotalOnInsert() {
+        Product product = productRepository.save(newProduct("SKU-1", "3.00", 100));
+        OrderItem line = newItem(product, 3);
+
+        Order order = orderService.createBulkOrder(new Order(), List.of(line));
+
+        assertThat(totalOf(order)).isEqualByComparingTo("9.00");
+    }
+
+    @Test
+    void concurrentItemAdds_ShouldNotLoseUpdates() throws InterruptedException {
+        Product product = productRepository.save(newProduct("SKU-1", "1.00", 1_000));
+        Order order = orderService.createOrder(new Order());
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        for (int i = 0; i < 200; i++) {
+            executor.execute(() -> orderItemService.createOrderItem(order.getId(), newItem(product, 1)));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(totalOf(order)).isEqualByComparingTo("200.00");
+    }
+
+    @Test
+    void repairTotals_ShouldRebuildOnlyDriftedTotals() {
+        Product product = productRepository.save(newProduct("SKU-1", "5.00", 100));
+        Order intact = orderService.createBulkOrder(new Order(), List.of(newItem(product, 1)));
+        Order drifted = orderService.createBulkOrder(new Order(), List.of(newItem(product, 2)));
+        jdbcTemplate.update("UPDATE orders SET total_amount = 0 WHERE id = ?", drifted.getId());
+
+        assertThat(orderService.repairTotals()).isEqualTo(1);
+
+        assertThat(totalOf(intact)).isEqualByComparingTo("5.00");
+        assertThat(totalOf(drifted)).isEqualByComparingTo("10.00");
+        assertThat(orderService.repairTotals()).isZero();
+    }
+
+    @Test
+    void getTotalRevenue_ShouldSkipCancelledOrders() {
+        Product product = productRepository.save(newProduct("SKU-1", "5.00", 100));
+        orderService.createBulkOrder(new Order(), List.of(newItem(product, 1)));
+        Order cancelled = orderService.createBulkOrder(new Order(), List.of(newItem(product, 2)));
+        orderService.updateOrderStatus(cancelled.getId(), OrderStatus.CANCELLED);
+
+        assertThat(orderService.getTotalRevenue()).isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void getTotalRevenue_ShouldBeCheaperFromTotals_ThanFromItems() {
+        int items = Integer.getInteger("benchmark.orderItems", 10_000_000);
+        int itemsPerOrder = 10;
+        Product product = productRepository.save(newProduct("SKU-REVENUE", "10.00", 0));
+        seedOrders(items / itemsPerOrder, itemsPerOrder, product.getId());
+
+        BigDecimal fromTotals = orderService.getTotalRevenue();
+        BigDecimal fromItems = revenueFromItems(0);
+        assertThat(fromTotals).isEqualByComparingTo(fromItems);
+
+        double totalsMillis = averageMillis(this::revenueFromTotals);
+        double itemsMillis = averageMillis(this::revenueFromItems);
+        long start = System.nanoTime();
+        int repaired = orderService.repairTotals();
+        double repairMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        System.out.printf("revenue over %d items, from order totals: %10.1f ms%n", items, totalsMillis);
+        System.out.printf("revenue over %d items, from item rows:    %10.1f ms%n", items, itemsMillis);
+        System.out.printf("repair pass over %d orders (%d drifted):  %10.1f ms%n", items / itemsPerOrder, repaired, repairMillis);
+        assertThat(repaired).isZero();
+    }
+
+    private double averageMillis(IntConsumer query) {
+        int runs = 5;
+        query.accept(-1);
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            query.accept(i);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / runs;
+    }
+
+    // Both timed queries carry a bound that varies per run so H2 cannot answer from its result cache
+
+    private BigDecimal revenueFromTotals(int run) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(total_amount), 0) FROM orders " +
+                        "WHERE (status IS NULL OR status <> ?) AND total_amount > ?",
+                BigDecimal.class, OrderStatus.CANCELLED.ordinal(), -run - 2);
+    }
+
+    private BigDecimal revenueFromItems(int run) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(i.subtotal), 0) FROM order_item i " +
+                        "JOIN orders o ON o.id = i.order_id WHERE (o.status IS NULL OR o.status <> ?) AND i.quantity > ?",
+                BigDecimal.class, OrderStatus.CANCELLED.ordinal(), -run - 2);
+    }
+
+    /**
+     * Inserts {@code count} pending orders with {@code itemsPerOrder} items each, totals included.
+     */
+    private void seedOrders(int count, int itemsPerOrder, long productId) {
+        for (long from = 0; from < count; from += 100_000) {
+            long to = Math.min(count, from + 100_000) - 1;
+            jdbcTemplate.update("INSERT INTO orders (id, status, total_amount, created_at, version) " +
+                            "SELECT ? + X, ?, ?, CURRENT_TIMESTAMP, 0 FROM SYSTEM_RANGE(?, ?)",
+                    ID_OFFSET, OrderStatus.PENDING.ordinal(), 10 * itemsPerOrder, from, to);
+            for (int item = 0; item < itemsPerOrder; item++) {
+                jdbcTemplate.update("INSERT INTO order_item (id, order_id, product_id, quantity, price_per_unit, subtotal) " +
+                                "SELECT ? + X * ? + ?, ? + X, ?, 1, 10, 10 FROM SYSTEM_RANGE(?, ?)",
+                        ID_OFFSET, itemsPerOrder, item, ID_OFFSET, productId, from, to);
+            }
+        }
+    }
+
+    private BigDecimal totalOf(Order order) {
+        return orderRepository.findById(order.getId()).orElseThrow().getTotalAmount();
+    }
+}
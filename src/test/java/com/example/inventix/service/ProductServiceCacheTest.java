@@ -0,0 +1,109 @@
+package com.example.inventix.service;
+
+import com.example.inventix.config.CacheConfig;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class ProductServiceCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @SpyBean
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).clear();
+        product = new Product();
+        product.setName("Cached Product");
+        product.setSku("SKU-CACHED");
+        product.setPrice(BigDecimal.TEN);
+        product.setQuantity(5);
+        product = productRepository.save(product);
+        clearInvocations(productRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void getProductById_ShouldHitDatabaseOnce_WhenCalledRepeatedly() {
+        productService.getProductById(product.getId());
+        productService.getProductById(product.getId());
+        productService.getProductById(product.getId());
+
+        verify(productRepository, times(1)).findById(product.getId());
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CacheConfig.PRODUCTS_CACHE)
+                .tag("result", "hit").functionCounter().count()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void getProductById_ShouldReadInAReadOnlyTransaction_WhenCalledOutsideOne() {
+        AtomicBoolean readOnly = new AtomicBoolean();
+        Answer<?> repository = mockingDetails(productRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            readOnly.set(TransactionSynchronizationManager.isActualTransactionActive()
+                    && TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return repository.answer(invocation);
+        }).when(productRepository).findById(product.getId());
+
+        productService.getProductById(product.getId());
+
+        assertThat(readOnly).isTrue();
+    }
+
+    @Test
+    void updateProduct_ShouldEvictCachedEntry() {
+        productService.getProductById(product.getId());
+
+        Product details = new Product();
+        details.setName("Renamed Product");
+        details.setSku("SKU-CACHED");
+        details.setPrice(BigDecimal.ONE);
+        details.setQuantity(5);
+        productService.updateProduct(product.getId(), details);
+
+        assertThat(productService.getProductById(product.getId()).getName()).isEqualTo("Renamed Product");
+    }
+
+    @Test
+    void deleteProduct_ShouldEvictCachedEntry() {
+        productService.getProductById(product.getId());
+
+        productService.deleteProduct(product.getId());
+
+        assertThat(cacheManager.getCache(CacheConfig.PRODUCTS_CACHE).get(product.getId())).isNull();
+    }
+}
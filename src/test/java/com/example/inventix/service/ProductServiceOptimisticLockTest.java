@@ -0,0 +1,164 @@
+package com.example.inventix.service;
+
+import com.example.inventix.exception.ProductVersionConflictException;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.reset;
+
+/**
+ * Version checks and retries on {@link ProductService#updateProduct(Long, Product)}. A stock
+ * reservation committed between the update's read and its write stands in for a concurrent
+ * checkout.
+ */
+@SpringBootTest(properties = "inventix.retry.max-attempts=3")
+class ProductServiceOptimisticLockTest {
+
+    private static final String SKU = "SKU-VERSIONED";
+
+    @Autowired
+    private ProductService productService;
+
+    @SpyBean
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry.clear();
+        product = new Product();
+        product.setName("Versioned Product");
+        product.setSku(SKU);
+        product.setPrice(BigDecimal.TEN);
+        product.setQuantity(50);
+        product = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reset(productRepository);
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void reserveStock_ShouldBumpVersion() {
+        productService.reserveStock(product.getId(), 5);
+
+        Product reserved = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(reserved.getVersion()).isEqualTo(product.getVersion() + 1);
+        assertThat(reserved.getQuantity()).isEqualTo(45);
+    }
+
+    @Test
+    void updateProduct_ShouldRetryOnFreshState_WhenStockChangesConcurrently() {
+        reserveAfterReads(1);
+
+        Product updated = productService.updateProduct(product.getId(), details(80));
+
+        assertThat(updated.getQuantity()).isEqualTo(80);
+        // Initial save, concurrent reservation, retried update
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getVersion())
+                .isEqualTo(product.getVersion() + 2);
+        assertThat(count("inventix.optimistic.conflicts")).isEqualTo(1);
+        assertThat(count("inventix.optimistic.recovered")).isEqualTo(1);
+    }
+
+    @Test
+    void updateProduct_ShouldGiveUp_WhenEveryAttemptConflicts() {
+        reserveAfterReads(Integer.MAX_VALUE);
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> productService.updateProduct(product.getId(), details(80)));
+
+        Product current = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(current.getQuantity()).isEqualTo(47);
+        assertThat(count("inventix.optimistic.conflicts")).isEqualTo(3);
+        assertThat(count("inventix.optimistic.exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    void updateProduct_ShouldConflict_WhenCatalogEditedSinceClientRead() {
+        Product read = details(60);
+        read.setCatalogVersion(0L);
+        Product edited = details(70);
+        edited.setDescription("Edited first");
+        productService.updateProduct(product.getId(), edited);
+
+        assertThrows(ProductVersionConflictException.class, () -> productService.updateProduct(product.getId(), read));
+
+        Product current = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(current.getDescription()).isEqualTo("Edited first");
+        assertThat(current.getQuantity()).isEqualTo(70);
+    }
+
+    @Test
+    void updateProduct_ShouldApply_WhenOnlyStockMovedSinceClientRead() {
+        reserveAfterReads(1);
+        Product read = details(80);
+        read.setCatalogVersion(0L);
+
+        Product updated = productService.updateProduct(product.getId(), read);
+
+        assertThat(updated.getQuantity()).isEqualTo(80);
+        assertThat(count("inventix.optimistic.recovered")).isEqualTo(1);
+    }
+
+    /**
+     * Commits a one-unit reservation right after each of the first {@code times} product reads.
+     */
+    private void reserveAfterReads(int times) {
+        AtomicInteger reads = new AtomicInteger();
+        // The spy delegates to the repository proxy through its default answer
+        Answer<?> repository = mockingDetails(productRepository).getMockCreationSettings().getDefaultAnswer();
+        // updateProduct reads inside its own transaction; the concurrent writer must commit on its own
+        TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+        concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        doAnswer(invocation -> {
+            Object result = repository.answer(invocation);
+            if (reads.getAndIncrement() < times) {
+                concurrent.executeWithoutResult(status -> productRepository.reserveStock(product.getId(), 1));
+            }
+            return result;
+        }).when(productRepository).findById(any());
+    }
+
+    private Product details(int quantity) {
+        Product details = new Product();
+        details.setName("Versioned Product");
+        details.setSku(SKU);
+        details.setPrice(BigDecimal.TEN);
+        details.setQuantity(quantity);
+        return details;
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).tag("operation", "updateProduct").tag("key", SKU).counter().count();
+    }
+}
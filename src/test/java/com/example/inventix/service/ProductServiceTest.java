@@ -1,14 +1,19 @@
 package com.example.inventix.service;
 
+import com.example.inventix.catalog.ProductLookups;
 import com.example.inventix.exception.ProductNotFoundException;
 import com.example.inventix.model.Product;
 import com.example.inventix.repository.ProductRepository;
 import com.example.inventix.service.impl.ProductServiceImpl;
+import com.example.inventix.stock.StockBuckets;
+import com.example.inventix.stock.StockLedger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -22,6 +27,19 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private StockBuckets stockBuckets;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ProductLookups productLookups;
+
+    // Its getIfAvailable() answers null: no ledger, as with the default configuration
+    @Mock
+    private ObjectProvider<StockLedger> stockLedger;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -49,7 +67,21 @@ class ProductServiceTest {
 
     @Test
     void testGetProductById_NotFound() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productLookups.findProduct(1L)).thenReturn(Optional.empty());
         assertThrows(ProductNotFoundException.class, () -> productService.getProductById(1L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testUpdateProduct_MissingQuantity() {
+        product.setQuantity(null);
+        assertThrows(IllegalArgumentException.class, () -> productService.updateProduct(1L, product));
+        verifyNoInteractions(productRepository, stockBuckets, eventPublisher);
+    }
+
+    @Test
+    void testReserveStock_NonPositiveQuantity() {
+        assertThrows(IllegalArgumentException.class, () -> productService.reserveStock(1L, -5));
+        assertThrows(IllegalArgumentException.class, () -> productService.tryReserveStock(1L, 0));
+        verifyNoInteractions(productRepository, stockBuckets, eventPublisher);
+    }
+}
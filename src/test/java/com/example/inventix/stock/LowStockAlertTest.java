@@ -0,0 +1,192 @@
+package com.example.inventix.stock;
+
+import com.example.inventix.TestFixtures;
+import com.example.inventix.exception.InsufficientStockException;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.repository.StockBucketRepository;
+import com.example.inventix.service.OrderItemService;
+import com.example.inventix.service.OrderService;
+import com.example.inventix.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.inventix.TestFixtures.newItem;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "inventix.alerts.sink=memory",
+        "inventix.alerts.default-reorder-point=5"
+})
+class LowStockAlertTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+    // Long enough for a queued evaluation to have run if one had been triggered
+    private static final Duration QUIET = Duration.ofMillis(300);
+
+    @Autowired
+    private InMemoryStockAlertSink alertSink;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private StockBuckets stockBuckets;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private StockBucketRepository stockBucketRepository;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.findAll().forEach(product -> stockBuckets.forget(product.getId()));
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        stockBucketRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        alertSink.drain();
+    }
+
+    @Test
+    void reservations_ShouldAlertOnce_WhenStockCrossesTheReorderPoint() throws InterruptedException {
+        Product product = productService.createProduct(newProduct("SKU-1", 10, null));
+        Order order = orderService.createOrder(new Order());
+
+        orderItemService.createOrderItem(order.getId(), newItem(product, 4));
+        assertThat(alertSink.poll(QUIET)).isNull();
+
+        orderItemService.createOrderItem(order.getId(), newItem(product, 2));
+        StockAlert alert = alertSink.poll(WAIT);
+        assertThat(alert).isNotNull();
+        assertThat(alert.productId()).isEqualTo(product.getId());
+        assertThat(alert.quantity()).isEqualTo(4);
+        assertThat(alert.reorderPoint()).isEqualTo(5);
+
+        // Still below the reorder point: no repeat
+        orderItemService.createOrderItem(order.getId(), newItem(product, 1));
+        assertThat(alertSink.poll(QUIET)).isNull();
+    }
+
+    @Test
+    void restock_ShouldRearmTheAlert() throws InterruptedException {
+        Product product = productService.createProduct(newProduct("SKU-1", 10, null));
+        productService.reserveStock(product.getId(), 6);
+        assertThat(alertSink.poll(WAIT)).isNotNull();
+
+        productService.releaseStock(product.getId(), 6);
+        assertThat(alertSink.poll(QUIET)).isNull();
+
+        productService.reserveStock(product.getId(), 7);
+        assertThat(alertSink.poll(WAIT)).isNotNull();
+    }
+
+    @Test
+    void reorderPoint_ShouldBePerProduct() throws InterruptedException {
+        Product product = productService.createProduct(newProduct("SKU-1", 100, 50));
+
+        productService.reserveStock(product.getId(), 40);
+        assertThat(alertSink.poll(QUIET)).isNull();
+
+        productService.reserveStock(product.getId(), 10);
+        StockAlert alert = alertSink.poll(WAIT);
+        assertThat(alert).isNotNull();
+        assertThat(alert.quantity()).isEqualTo(50);
+        assertThat(alert.reorderPoint()).isEqualTo(50);
+    }
+
+    @Test
+    void rolledBackReservations_ShouldNotAlert() throws InterruptedException {
+        Product first = productService.createProduct(newProduct("SKU-1", 10, null));
+        Product second = productService.createProduct(newProduct("SKU-2", 1, null));
+        // Creating SKU-2 below its reorder point alerts straight away
+        assertThat(alertSink.poll(WAIT).productId()).isEqualTo(second.getId());
+
+        // Reserves 8 of SKU-1, then fails on SKU-2 and rolls both back
+        assertThrows(InsufficientStockException.class, () -> orderService.createBulkOrder(new Order(),
+                List.of(newItem(first, 8), newItem(second, 2))));
+
+        assertThat(alertSink.poll(QUIET)).isNull();
+    }
+
+    @Test
+    void bucketedStock_ShouldAlertOnTheSummedQuantity() throws InterruptedException {
+        Product product = productService.createProduct(newProduct("SKU-1", 40, null));
+        productService.setStockBuckets(product.getId(), 4);
+
+        productService.reserveStock(product.getId(), 30);
+        assertThat(alertSink.poll(QUIET)).isNull();
+
+        productService.reserveStock(product.getId(), 5);
+        StockAlert alert = alertSink.poll(WAIT);
+        assertThat(alert).isNotNull();
+        assertThat(alert.quantity()).isEqualTo(5);
+    }
+
+    @Test
+    void evaluations_ShouldNeverOverlapForOneProduct() throws InterruptedException {
+        ProductService slowReads = mock(ProductService.class);
+        AtomicInteger reading = new AtomicInteger();
+        AtomicInteger maxReading = new AtomicInteger();
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch firstReadStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstRead = new CountDownLatch(1);
+        when(slowReads.getStockLevel(1L)).thenAnswer(invocation -> {
+            maxReading.accumulateAndGet(reading.incrementAndGet(), Math::max);
+            if (reads.getAndIncrement() == 0) {
+                firstReadStarted.countDown();
+                releaseFirstRead.await();
+            }
+            reading.decrementAndGet();
+            return new StockLevel(1L, "SKU-1", "Product SKU-1", 20, null);
+        });
+        LowStockAlertEngine engine = new LowStockAlertEngine(slowReads, new InMemoryStockAlertSink(), 5);
+
+        engine.onStockChanged(StockChangedEvent.moved(1L, -1));
+        assertThat(firstReadStarted.await(WAIT.toMillis(), TimeUnit.MILLISECONDS)).isTrue();
+        // Changes committed during the read wait for it, then share one more pass
+        for (int i = 0; i < 10; i++) {
+            engine.onStockChanged(StockChangedEvent.moved(1L, -1));
+        }
+        // Time for an overlapping read to start, if one had been scheduled
+        Thread.sleep(QUIET.toMillis());
+        releaseFirstRead.countDown();
+        engine.close();
+
+        assertThat(maxReading.get()).isEqualTo(1);
+        assertThat(reads.get()).isEqualTo(2);
+    }
+
+    private static Product newProduct(String sku, int quantity, Integer reorderPoint) {
+        Product product = TestFixtures.newProduct(sku, quantity);
+        product.setReorderPoint(reorderPoint);
+        return product;
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.inventix.stock;
+
+import com.example.inventix.exception.InsufficientStockException;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.Product;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.repository.StockBucketRepository;
+import com.example.inventix.service.OrderItemService;
+import com.example.inventix.service.OrderService;
+import com.example.inventix.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.inventix.TestFixtures.newItem;
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class StockBucketsTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private StockBuckets stockBuckets;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockBucketRepository stockBucketRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void tearDown() {
+        productRepository.findAll().forEach(product -> stockBuckets.forget(product.getId()));
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        stockBucketRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void setStockBuckets_ShouldSpreadStockAndReportTheSum() {
+        Product product = savedProduct("SKU-HOT", 100);
+
+        productService.setStockBuckets(product.getId(), 8);
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+        assertThat(stockBucketRepository.findAll()).hasSize(8)
+                .allSatisfy(bucket -> assertThat(bucket.getQuantity()).isBetween(12, 13));
+        assertThat(productService.getProductById(product.getId()).getQuantity()).isEqualTo(100);
+    }
+
+    @Test
+    void setStockBuckets_ShouldMergeBackIntoTheProductRow() {
+        Product product = savedProduct("SKU-HOT", 100);
+        productService.setStockBuckets(product.getId(), 4);
+        productService.reserveStock(product.getId(), 30);
+
+        productService.setStockBuckets(product.getId(), 0);
+
+        assertThat(stockBucketRepository.count()).isZero();
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(70);
+        productService.reserveStock(product.getId(), 70);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+    }
+
+    @Test
+    void setStockBuckets_ShouldDropTheBucketCountOnlyOnCommit() throws Exception {
+        Product product = savedProduct("SKU-HOT", 100);
+        productService.setStockBuckets(product.getId(), 4);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.setStockBuckets(product.getId(), 0);
+            // A concurrent reservation still sees the committed count and caches it
+            assertThat(CompletableFuture.supplyAsync(() -> stockBuckets.bucketCount(product.getId())).join())
+                    .isEqualTo(4);
+        });
+
+        assertThat(stockBuckets.bucketCount(product.getId())).isZero();
+        productService.reserveStock(product.getId(), 10);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(90);
+    }
+
+    @Test
+    void setStockBuckets_ShouldKeepTheBucketCount_WhenRolledBack() {
+        Product product = savedProduct("SKU-HOT", 100);
+        productService.setStockBuckets(product.getId(), 4);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            productService.setStockBuckets(product.getId(), 0);
+            status.setRollbackOnly();
+        });
+
+        assertThat(stockBuckets.bucketCount(product.getId())).isEqualTo(4);
+        productService.reserveStock(product.getId(), 10);
+        assertThat(stockBuckets.quantity(product.getId())).isEqualTo(90);
+    }
+
+    @Test
+    void releaseStock_ShouldFallBackToTheProductRow_WhenTheCachedBucketsAreGone() {
+        Product product = savedProduct("SKU-HOT", 100);
+        productService.setStockBuckets(product.getId(), 4);
+        // Merged back into the row behind the cached bucket count's back
+        stockBucketRepository.deleteAllInBatch();
+        transactionTemplate.executeWithoutResult(status -> {
+            Product merged = productRepository.findById(product.getId()).orElseThrow();
+            merged.setQuantity(50);
+            merged.setStockBuckets(0);
+        });
+
+        productService.releaseStock(product.getId(), 5);
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(55);
+    }
+
+    @Test
+    void getProductsBySkus_ShouldReportTheBucketedSum() {
+        Product product = savedProduct("SKU-HOT", 100);
+        productService.setStockBuckets(product.getId(), 4);
+
+        assertThat(productService.getProductsBySkus(List.of("SKU-HOT")))
+                .singleElement()
+                .satisfies(found -> assertThat(found.getQuantity()).isEqualTo(100));
+    }
+
+    @Test
+    void updateProduct_ShouldRefillTheBucketsAndLeaveTheRowAtZero() {
+        Product product = savedProduct("SKU-HOT", 100);
+        productService.setStockBuckets(product.getId(), 4);
+
+        Product updated = productService.updateProduct(product.getId(), newProduct("SKU-HOT", 60));
+
+        assertThat(updated.getQuantity()).isEqualTo(60);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+        assertThat(stockBuckets.quantity(product.getId())).isEqualTo(60);
+        assertThat(productService.getProductById(product.getId()).getQuantity()).isEqualTo(60);
+    }
+
+    @Test
+    void reserveStock_ShouldGatherAcrossBuckets_WhenNoSingleBucketSuffices() {
+        Product product = savedProduct("SKU-HOT", 10);
+        productService.setStockBuckets(product.getId(), 3);
+
+        productService.reserveStock(product.getId(), 7);
+
+        assertThat(stockBuckets.quantity(product.getId())).isEqualTo(3);
+        assertThrows(InsufficientStockException.class, () -> productService.reserveStock(product.getId(), 4));
+        productService.releaseStock(product.getId(), 4);
+        assertThat(stockBuckets.quantity(product.getId())).isEqualTo(7);
+    }
+
+    @Test
+    void reserveStock_ShouldNeverOversell_WhenThreadsCompeteForABucketedProduct() throws Exception {
+        Product product = savedProduct("SKU-HOT", 100);
+        productService.setStockBuckets(product.getId(), 8);
+        AtomicInteger accepted = new AtomicInteger();
+
+        runConcurrently(16, 200, () -> {
+            try {
+                productService.reserveStock(product.getId(), 1);
+                accepted.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                // Expected once the stock is gone
+            }
+        });
+
+        assertThat(accepted.get()).isEqualTo(100);
+        assertThat(stockBuckets.quantity(product.getId())).isZero();
+    }
+
+    /**
+     * 64 threads place line items for one SKU through {@code createOrderItem}, first against the
+     * single product row and then against 16 buckets. Each thread writes to its own order.
+     */
+    @Test
+    @Tag("benchmark")
+    void createOrderItem_ShouldScaleBetter_WithBucketedStock() throws Exception {
+        int threads = 64;
+        int lineItems = Integer.getInteger("benchmark.lineItems", 6_400);
+
+        double singleRow = lineItemsPerSecond(savedProduct("SKU-SINGLE", lineItems), threads, lineItems);
+        Product bucketed = savedProduct("SKU-BUCKETED", lineItems);
+        productService.setStockBuckets(bucketed.getId(), 16);
+        double buckets = lineItemsPerSecond(bucketed, threads, lineItems);
+
+        System.out.printf("single row: %8.0f line items/s%n", singleRow);
+        System.out.printf("16 buckets: %8.0f line items/s%n", buckets);
+        assertThat(stockBuckets.quantity(bucketed.getId())).isZero();
+    }
+
+    private double lineItemsPerSecond(Product product, int threads, int lineItems) throws InterruptedException {
+        ThreadLocal<Long> orderIds = ThreadLocal.withInitial(() -> orderService.createOrder(new Order()).getId());
+        long start = System.nanoTime();
+        runConcurrently(threads, lineItems, () -> orderItemService.createOrderItem(orderIds.get(), newItem(product, 1)));
+        return lineItems / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private static void runConcurrently(int threads, int attempts, Runnable attempt) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < attempts; i++) {
+            executor.submit(() -> {
+                start.await();
+                attempt.run();
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+    }
+
+    private Product savedProduct(String sku, int quantity) {
+        return productRepository.save(newProduct(sku, quantity));
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.inventix.stock;
+
+import com.example.inventix.exception.InsufficientStockException;
+import com.example.inventix.model.Product;
+import com.example.inventix.model.StockLedgerCheckpoint;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.repository.StockLedgerCheckpointRepository;
+import com.example.inventix.service.OrderService;
+import com.example.inventix.service.ProductImportService;
+import com.example.inventix.service.ProductService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.inventix.TestFixtures.newItem;
+import static com.example.inventix.TestFixtures.newOrder;
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "inventix.stock.ledger.enabled=true",
+        // Flushes are driven by the tests
+        "inventix.stock.ledger.flush-interval-ms=3600000"
+})
+class StockLedgerTest {
+
+    @TempDir
+    static Path journalDirectory;
+
+    @TempDir
+    static Path importDirectory;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) {
+        registry.add("inventix.stock.ledger.journal-dir", () -> journalDirectory.toString());
+        registry.add("inventix.import.directory", () -> importDirectory.toString());
+    }
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private StockLedgerCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> productIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stockLedger.flush();
+        productIds.forEach(stockLedger::forget);
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void reserveStock_ShouldNeverOversell_WhenThreadsCompeteForTheSameProduct() throws Exception {
+        Product product = savedProduct("SKU-LEDGER", 100);
+        AtomicInteger accepted = new AtomicInteger();
+
+        runConcurrently(200, () -> {
+            try {
+                productService.reserveStock(product.getId(), 1);
+                accepted.incrementAndGet();
+            } catch (InsufficientStockException e) {
+                // Expected once the stock is gone
+            }
+        });
+        stockLedger.flush();
+
+        assertThat(accepted.get()).isEqualTo(100);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isZero();
+    }
+
+    @Test
+    void flush_ShouldWriteNetDeltaWithCheckpoint() {
+        Product product = savedProduct("SKU-LEDGER", 100);
+        productService.reserveStock(product.getId(), 5);
+        productService.releaseStock(product.getId(), 2);
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(100);
+        assertThat(stockLedger.available(product.getId())).isEqualTo(97);
+
+        stockLedger.flush();
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(97);
+        long checkpoint = checkpointRepository.findById(StockLedgerCheckpoint.SINGLETON_ID).orElseThrow().getLastSequence();
+        assertThat(StockJournal.read(journalDirectory, checkpoint)).isEmpty();
+        assertThat(StockJournal.segments(journalDirectory)).hasSize(1);
+    }
+
+    @Test
+    void updateProduct_ShouldLeaveTheRowToTheLedgerFlush() {
+        Product product = savedProduct("SKU-LEDGER", 100);
+        productService.reserveStock(product.getId(), 10);
+
+        Product details = new Product();
+        details.setName("Renamed");
+        details.setSku("SKU-LEDGER");
+        details.setPrice(BigDecimal.TEN);
+        details.setQuantity(50);
+        Product updated = productService.updateProduct(product.getId(), details);
+
+        assertThat(updated.getQuantity()).isEqualTo(50);
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(100);
+        stockLedger.flush();
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(50);
+        assertThat(stockLedger.available(product.getId())).isEqualTo(50);
+    }
+
+    @Test
+    void importProducts_ShouldSetLedgerStock_InsteadOfTheRow() throws IOException {
+        Product product = savedProduct("SKU-LEDGER", 100);
+        productService.reserveStock(product.getId(), 10);
+
+        Files.writeString(importDirectory.resolve("ledger.csv"),
+                "sku,name,description,price,quantity\nSKU-LEDGER,Imported,,10.00,40");
+        productImportService.importProducts("ledger.csv", LocalDate.now());
+
+        assertThat(stockLedger.available(product.getId())).isEqualTo(40);
+        stockLedger.flush();
+        Product imported = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(imported.getQuantity()).isEqualTo(40);
+        assertThat(imported.getName()).isEqualTo("Imported");
+    }
+
+    @Test
+    void createBulkOrder_ShouldReturnLedgerStock_WhenTheOrderRollsBack() {
+        Product plenty = savedProduct("SKU-PLENTY", 10);
+        Product scarce = savedProduct("SKU-SCARCE", 1);
+
+        assertThrows(InsufficientStockException.class, () -> orderService.createBulkOrder(newOrder(),
+                List.of(newItem(plenty, 5), newItem(scarce, 2))));
+
+        assertThat(stockLedger.available(plenty.getId())).isEqualTo(10);
+        stockLedger.flush();
+        assertThat(productRepository.findById(plenty.getId()).orElseThrow().getQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void replay_ShouldApplyUncheckpointedJournal_AfterCrash(@TempDir Path crashedJournal) throws IOException {
+        Product product = savedProduct("SKU-CRASH", 100);
+        StockLedger crashed = newLedger(crashedJournal);
+        transactionTemplate.executeWithoutResult(status -> crashed.reserve(product.getId(), 10));
+        transactionTemplate.executeWithoutResult(status -> crashed.reserve(product.getId(), 5));
+        // A record torn by the crash must be ignored
+        Path segment = StockJournal.segments(crashedJournal).get(0);
+        Files.write(segment, new byte[StockJournal.RECORD_BYTES - 1], StandardOpenOption.APPEND);
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(100);
+
+        StockLedger restarted = newLedger(crashedJournal);
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(85);
+        assertThat(restarted.available(product.getId())).isEqualTo(85);
+        restarted.close();
+    }
+
+    /**
+     * Compares single-threaded reservation latency of the ledger against the conditional
+     * UPDATE, both inside a transaction as {@code createOrderItem} calls them.
+     */
+    @Test
+    @Tag("benchmark")
+    void reserve_ShouldBeFasterThanDatabaseUpdate() {
+        int reservations = 20_000;
+        Product product = savedProduct("SKU-LEDGER-BENCH", reservations * 2);
+
+        long[] database = time(reservations, () -> transactionTemplate.executeWithoutResult(
+                status -> productRepository.reserveStock(product.getId(), 1)));
+        long[] ledger = time(reservations, () -> transactionTemplate.executeWithoutResult(
+                status -> stockLedger.reserve(product.getId(), 1)));
+        long[] ledgerOnly = time(reservations, () -> stockLedger.reserve(product.getId(), 1));
+
+        print("database UPDATE", database);
+        print("ledger + journal fsync", ledger);
+        print("ledger, no transaction", ledgerOnly);
+        assertThat(ledgerOnly[ledgerOnly.length / 2]).isLessThan(database[database.length / 2]);
+    }
+
+    private static long[] time(int runs, Runnable operation) {
+        for (int i = 0; i < runs / 10; i++) {
+            operation.run();
+        }
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void print(String label, long[] sorted) {
+        System.out.printf("%-24s p50 %8.1f us   p99 %8.1f us%n", label,
+                sorted[sorted.length / 2] / 1_000.0, sorted[(int) (sorted.length * 0.99)] / 1_000.0);
+    }
+
+    private StockLedger newLedger(Path directory) {
+        return new StockLedger(jdbcTemplate, transactionTemplate, checkpointRepository, new SimpleMeterRegistry(), directory, true);
+    }
+
+    private void runConcurrently(int attempts, Runnable attempt) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < attempts; i++) {
+            executor.submit(() -> {
+                start.await();
+                attempt.run();
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+    }
+
+    private Product savedProduct(String sku, int quantity) {
+        Product product = productRepository.save(newProduct(sku, quantity));
+        productIds.add(product.getId());
+        return product;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.inventix.stock;
+
+import com.example.inventix.exception.InsufficientStockException;
+import com.example.inventix.model.Order;
+import com.example.inventix.model.OrderItem;
+import com.example.inventix.model.Product;
+import com.example.inventix.model.StockMovement;
+import com.example.inventix.model.StockMovementReason;
+import com.example.inventix.repository.OrderItemRepository;
+import com.example.inventix.repository.OrderRepository;
+import com.example.inventix.repository.ProductRepository;
+import com.example.inventix.repository.StockMovementRepository;
+import com.example.inventix.repository.StockSnapshotRepository;
+import com.example.inventix.service.OrderItemService;
+import com.example.inventix.service.OrderService;
+import com.example.inventix.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.inventix.TestFixtures.newItem;
+import static com.example.inventix.TestFixtures.newProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        // The tests flush the journal themselves
+        "inventix.stock.journal.flush-interval-ms=3600000",
+        "inventix.stock.journal.snapshot-every=3"
+})
+class StockMovementJournalTest {
+
+    @Autowired
+    private StockMovementJournal journal;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderItemService orderItemService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private StockMovementRepository movementRepository;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        journal.flush();
+        orderItemRepository.deleteAllInBatch();
+        orderRepository.deleteAllInBatch();
+        productRepository.deleteAllInBatch();
+        movementRepository.deleteAllInBatch();
+        snapshotRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void orderItemChanges_ShouldBeJournaledAgainstTheItem() {
+        Product product = productService.createProduct(newProduct("SKU-1", 20));
+        Order order = orderService.createOrder(new Order());
+
+        OrderItem item = orderItemService.createOrderItem(order.getId(), newItem(product, 5));
+        orderItemService.updateOrderItem(item.getId(), newItem(product, 3));
+        orderItemService.deleteOrderItem(item.getId());
+        journal.flush();
+
+        List<StockMovement> movements = journal.movements(product.getId(),
+                LocalDateTime.now().minusHours(1), LocalDateTime.now(), 100);
+        assertThat(movements).extracting(StockMovement::getReason).containsExactly(StockMovementReason.ADJUSTED,
+                StockMovementReason.RESERVED, StockMovementReason.RELEASED, StockMovementReason.RELEASED);
+        assertThat(movements).extracting(StockMovement::getOrderItemId)
+                .containsExactly(null, item.getId(), item.getId(), item.getId());
+        assertThat(movements).extracting(StockMovement::getDelta).containsExactly(0, -5, 2, 3);
+        assertThat(movements.get(0).getQuantity()).isEqualTo(20);
+    }
+
+    @Test
+    void rolledBackReservations_ShouldNotBeJournaled() {
+        Product first = productService.createProduct(newProduct("SKU-1", 10));
+        Product second = productService.createProduct(newProduct("SKU-2", 1));
+
+        assertThrows(InsufficientStockException.class, () -> orderService.createBulkOrder(new Order(),
+                List.of(newItem(first, 8), newItem(second, 2))));
+        journal.flush();
+
+        assertThat(movementRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void quantityAt_ShouldReplayFromTheNearestSnapshot() throws InterruptedException {
+        Product product = productService.createProduct(newProduct("SKU-1", 100));
+        LocalDateTime beforeCreation = LocalDateTime.now().minusSeconds(1);
+        LocalDateTime[] times = new LocalDateTime[8];
+        for (int i = 0; i < times.length; i++) {
+            productService.reserveStock(product.getId(), 1);
+            journal.flush();
+            Thread.sleep(2);
+            times[i] = LocalDateTime.now();
+            Thread.sleep(2);
+        }
+        productService.updateProduct(product.getId(), newProduct("SKU-1", 50));
+        productService.releaseStock(product.getId(), 5);
+        journal.flush();
+
+        // A snapshot every 3 movements, counting the creation
+        assertThat(snapshotRepository.count()).isEqualTo(3);
+        assertThat(journal.quantityAt(product.getId(), beforeCreation)).isEmpty();
+        for (int i = 0; i < times.length; i++) {
+            assertThat(journal.quantityAt(product.getId(), times[i])).contains(99 - i);
+        }
+        assertThat(productService.getStockLevelAt(product.getId(), LocalDateTime.now()))
+                .hasValueSatisfying(point -> assertThat(point.quantity()).isEqualTo(55));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void quantityAt_ShouldNotSlowDown_AsTheJournalGrows() {
+        long rows = Long.getLong("benchmark.stockMovements", 100_000_000L);
+        int products = 1_000;
+        int snapshotEvery = 1_000;
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+
+        long seeded = 0;
+        for (long target = rows / 8; target <= rows; target *= 2) {
+            seedMovements(seeded, target, products, snapshotEvery, start);
+            seeded = target;
+            double millis = averageLookupMillis(products, seeded / products, start);
+            System.out.printf("point-in-time lookup over %,d movements: %8.3f ms%n", seeded, millis);
+        }
+        assertThat(journal.quantityAt(1L, start.plusSeconds(seeded / products))).contains(-(int) (seeded / products));
+    }
+
+    /**
+     * Average time to look up a random product at a random second of the seeded history.
+     */
+    private double averageLookupMillis(int products, long seconds, LocalDateTime start) {
+        int lookups = 2_000;
+        long begin = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            journal.quantityAt(1 + (i * 7_919L) % products, start.plusSeconds((i * 104_729L) % seconds));
+        }
+        return (System.nanoTime() - begin) / 1_000_000.0 / lookups;
+    }
+
+    /**
+     * Appends movements {@code [from, to)}: one unit reserved per product per second, with a
+     * snapshot every {@code snapshotEvery} movements of a product, as the journal would write.
+     */
+    private void seedMovements(long from, long to, int products, int snapshotEvery, LocalDateTime start) {
+        for (long chunk = from; chunk < to; chunk += 1_000_000) {
+            long last = Math.min(to, chunk + 1_000_000) - 1;
+            jdbcTemplate.update("INSERT INTO stock_movements (id, product_id, reason, delta, moved_at) " +
+                            "SELECT X + 1, MOD(X, ?) + 1, 'RESERVED', -1, DATEADD(SECOND, X / ?, CAST(? AS TIMESTAMP)) FROM SYSTEM_RANGE(?, ?)",
+                    products, products, start, chunk, last);
+        }
+        long firstRound = from / products;
+        long lastRound = to / products;
+        for (long round = firstRound + 1; round <= lastRound; round++) {
+            if (round % snapshotEvery == 0) {
+                jdbcTemplate.update("INSERT INTO stock_snapshots (id, product_id, quantity, as_of) " +
+                                "SELECT ? * ? + X, X, ?, ? FROM SYSTEM_RANGE(1, ?)",
+                        round / snapshotEvery, products, -round, start.plusSeconds(round - 1), products);
+            }
+        }
+    }
+}